@@ -1,9 +1,15 @@
 package ti.verticalpager;
 
+import android.content.Context;
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.util.SparseIntArray;
 import android.widget.TextView;
 import android.view.View;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 import org.appcelerator.kroll.common.Log;
 import org.appcelerator.titanium.proxy.TiViewProxy;
@@ -13,135 +19,710 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 public class TiVerticalPagerAdapter extends RecyclerView.Adapter<TiVerticalPagerAdapter.ViewHolder> {
 
     private static final String TAG = "TiVerticalPagerAdapter";
 
-    private List<TiViewProxy> viewProxies;
+    static final int VIEW_TYPE_DEFAULT = 0;
+
+    // Largest changed section, old and new pages together, that is diffed on the UI thread.
+    // DiffUtil is O(N + D^2), past this a full rebind with stable ids is cheaper.
+    private static final int MAX_DIFF_WINDOW = 512;
+
+    // Template names are mapped to view types once per process, so every pager
+    // uses the same view type for the same template name
+    private static final Map<String, Integer> templateViewTypes = new HashMap<>();
+    private static final List<String> templateNames = new ArrayList<>();
+
+    private TiVerticalPagerViewList viewProxies;
     private TiVerticalPagerProxy pagerProxy;
 
-    private final Map<Integer, View> viewCache = new HashMap<>();
+    private final TiVerticalPagerPageCache pageCache = new TiVerticalPagerPageCache();
+
+    // Identity based ids start high so they stay clear of numeric 'itemId' values and of the
+    // positions used as ids in data-source mode
+    private static final long IDENTITY_ID_BASE = 1L << 62;
+    private final WeakHashMap<TiViewProxy, Long> itemIds = new WeakHashMap<>();
+    private long nextItemId = IDENTITY_ID_BASE;
+
+    public interface ContentDrawnListener {
+        /**
+         * Called from the draw pass the first time a page is drawn after it was bound.
+         */
+        void onPageContentDrawn(TiViewProxy page, long drawnTime);
+    }
+
+    private ContentDrawnListener contentDrawnListener;
+
+    // Holders whose data source page this adapter created or last rebound
+    private int dataSourcePageCount = 0;
 
-    public TiVerticalPagerAdapter(TiVerticalPagerProxy proxy, List<TiViewProxy> viewProxies) {
+    private boolean dataSourceMode = false;
+    private int dataSourceCount = 0;
+    private final SparseIntArray viewTypeCache = new SparseIntArray();
+
+    public TiVerticalPagerAdapter(TiVerticalPagerProxy proxy, TiVerticalPagerViewList viewProxies) {
         this.pagerProxy = proxy;
-        this.viewProxies = new ArrayList<>(viewProxies);
+        this.viewProxies = viewProxies;
+
+        // Lets RecyclerView keep holders, and the realized pages in them, across data changes
+        setHasStableIds(true);
+    }
+
+    static synchronized int getTemplateViewType(String templateId) {
+        if (templateId == null) {
+            return VIEW_TYPE_DEFAULT;
+        }
+
+        Integer viewType = templateViewTypes.get(templateId);
+        if (viewType == null) {
+            templateNames.add(templateId);
+            viewType = templateNames.size();
+            templateViewTypes.put(templateId, viewType);
+        }
+        return viewType;
+    }
+
+    static synchronized String getTemplateName(int viewType) {
+        if (viewType <= VIEW_TYPE_DEFAULT || viewType > templateNames.size()) {
+            return null;
+        }
+        return templateNames.get(viewType - 1);
     }
 
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        return new ViewHolder(new android.widget.FrameLayout(parent.getContext()));
+        ViewHolder holder = new ViewHolder(new PageContainer(parent.getContext()));
+        holder.templateId = getTemplateName(viewType);
+        return holder;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        if (!dataSourceMode || pagerProxy == null || !pagerProxy.hasPageTemplates()) {
+            return VIEW_TYPE_DEFAULT;
+        }
+
+        // RecyclerView asks for the type several times per bind, only cross the bridge once
+        int viewType = viewTypeCache.get(position, -1);
+        if (viewType < 0) {
+            viewType = getTemplateViewType(pagerProxy.getTemplateId(position));
+            viewTypeCache.put(position, viewType);
+        }
+        return viewType;
+    }
+
+    /**
+     * Pages keep the same id wherever they move. The id is the page's 'itemId' property when it
+     * has one, otherwise one assigned to the proxy the first time it is seen. In data-source mode
+     * pages have no identity of their own and the position is used.
+     */
+    @Override
+    public long getItemId(int position) {
+        if (dataSourceMode) {
+            return position;
+        }
+        if (viewProxies == null || position < 0 || position >= viewProxies.size()) {
+            return RecyclerView.NO_ID;
+        }
+        return getStableId(viewProxies.get(position));
+    }
+
+    private long getStableId(TiViewProxy page) {
+        if (page == null) {
+            return RecyclerView.NO_ID;
+        }
+
+        Long id = itemIds.get(page);
+        if (id == null) {
+            Object itemId = page.getProperty("itemId");
+            if (itemId instanceof Number) {
+                id = ((Number) itemId).longValue();
+            } else if (itemId != null) {
+                id = hashId(itemId.toString());
+            } else {
+                id = nextItemId++;
+            }
+            itemIds.put(page, id);
+        }
+        return id;
+    }
+
+    /**
+     * 64-bit FNV-1a hash, string ids collide far less often than with String.hashCode().
+     */
+    private static long hashId(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static boolean isPageAttached(@NonNull ViewHolder holder, TiViewProxy page) {
+        TiUIView pageView = page.peekView();
+        View nativeView = pageView != null ? pageView.getNativeView() : null;
+        return nativeView != null && nativeView.getParent() == holder.container;
+    }
+
+    public void setContentDrawnListener(ContentDrawnListener listener) {
+        this.contentDrawnListener = listener;
+    }
+
+    /**
+     * Uptime of the first draw of the page since it was bound, 0 while it has not been drawn.
+     */
+    public static long getContentDrawnTime(TiViewProxy page) {
+        TiUIView pageView = page != null ? page.peekView() : null;
+        View nativeView = pageView != null ? pageView.getNativeView() : null;
+        Object parent = nativeView != null ? nativeView.getParent() : null;
+        return parent instanceof PageContainer ? ((PageContainer) parent).contentDrawnTime : 0;
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        if (position < 0 || position >= viewProxies.size()) {
+        // Holders from a shared pool may have been created by another pager
+        holder.container.listener = contentDrawnListener;
+        long start = System.nanoTime();
+        bindPage(holder, position);
+        pagerProxy.getPagerMetrics().recordBind(System.nanoTime() - start);
+    }
+
+    private void bindPage(@NonNull ViewHolder holder, int position) {
+        if (position < 0 || position >= getItemCount()) {
             Log.w(TAG, "Invalid position: " + position);
             return;
         }
 
+        if (dataSourceMode) {
+            bindDataSourcePage(holder, position);
+            return;
+        }
+
+        TiViewProxy viewProxy = viewProxies.get(position);
+        if (viewProxy != null && viewProxy == holder.boundProxy && isPageAttached(holder, viewProxy)) {
+            // Same page bound again after a data change, its view is already in place. It may
+            // have been detached and added back in between, so make sure it has its parent.
+            if (viewProxy.getParent() == null) {
+                viewProxy.setParent(pagerProxy);
+            }
+            return;
+        }
+
+        releaseHolderPage(holder);
         holder.container.removeAllViews();
+        holder.boundProxy = null;
 
         try {
-            TiViewProxy viewProxy = viewProxies.get(position);
-
             if (viewProxy == null) {
                 Log.w(TAG, "ViewProxy is null at position: " + position);
                 return;
             }
 
-            // Set parent if needed
-            if (viewProxy.getParent() == null) {
-                viewProxy.setParent(pagerProxy);
-            }
+            holder.boundProxy = viewProxy;
+            attachPageView(holder, viewProxy, position);
 
-            // Get or create the view
-            TiUIView tiView;
-            try {
-                tiView = viewProxy.getOrCreateView();
-            } catch (Exception e) {
-                Log.e(TAG, "Failed to create view at position " + position + ": " + e.getMessage(), e);
-
-                TextView errorView = new TextView(holder.container.getContext());
-                errorView.setText("Error loading view at position " + position);
-                errorView.setTextColor(0xFFFF0000); // Vermelho
-                errorView.setGravity(android.view.Gravity.CENTER);
-
-                ViewGroup.LayoutParams params = new ViewGroup.LayoutParams(
-                        ViewGroup.LayoutParams.MATCH_PARENT,
-                        ViewGroup.LayoutParams.MATCH_PARENT
-                );
-                errorView.setLayoutParams(params);
-                holder.container.addView(errorView);
-                return;
-            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error in onBindViewHolder at position " + position + ": " + e.getMessage(), e);
+        }
+    }
 
-            if (tiView == null) {
-                Log.w(TAG, "TiUIView is null at position: " + position);
+    private void bindDataSourcePage(@NonNull ViewHolder holder, int position) {
+        try {
+            if (holder.pageProxy != null && pagerProxy.canUpdatePages()) {
+                // Reuse the view tree this holder already owns, it may come from another
+                // pager through a shared pool
+                if (holder.pageProxy.getParent() != pagerProxy) {
+                    holder.pageProxy.setParent(pagerProxy);
+                }
+                holder.container.contentDrawnTime = 0;
+                setPageOwner(holder, this);
+                pagerProxy.updatePage(holder.pageProxy, position, holder.templateId);
                 return;
             }
 
-            View nativeView = tiView.getNativeView();
+            releaseHolderPage(holder);
+            holder.container.removeAllViews();
 
-            if (nativeView == null) {
-                Log.w(TAG, "Native view is null at position: " + position);
+            TiViewProxy viewProxy = pagerProxy.createPage(position, holder.templateId);
+            if (viewProxy == null) {
                 return;
             }
 
-            ViewGroup currentParent = (ViewGroup) nativeView.getParent();
-            if (currentParent != null) {
-                try {
-                    currentParent.removeView(nativeView);
-                } catch (Exception e) {
-                    Log.e(TAG, "Error removing view from parent: " + e.getMessage());
-                }
+            holder.pageProxy = viewProxy;
+            setPageOwner(holder, this);
+            attachPageView(holder, viewProxy, position);
+
+        } catch (Exception e) {
+            Log.e(TAG, "Error binding data source page at position " + position + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void attachPageView(@NonNull ViewHolder holder, TiViewProxy viewProxy, int position) {
+        holder.container.contentDrawnTime = 0;
+
+        // Set parent if needed
+        if (viewProxy.getParent() == null) {
+            viewProxy.setParent(pagerProxy);
+        }
+
+        // Get or create the view, a page pre-loaded earlier already has one
+        TiVerticalPagerMetrics metrics = pagerProxy.getPagerMetrics();
+        boolean realized = viewProxy.peekView() != null;
+        TiUIView tiView;
+        try {
+            long start = System.nanoTime();
+            tiView = viewProxy.getOrCreateView();
+            if (!realized) {
+                metrics.recordViewCreated(System.nanoTime() - start);
+                metrics.recordPageCreated(viewProxy, TiVerticalPagerMetrics.CREATED_BY_BIND);
             }
+            metrics.recordPreloadResult(realized);
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to create view at position " + position + ": " + e.getMessage(), e);
+
+            TextView errorView = new TextView(holder.container.getContext());
+            errorView.setText("Error loading view at position " + position);
+            errorView.setTextColor(0xFFFF0000); // Vermelho
+            errorView.setGravity(android.view.Gravity.CENTER);
 
-            // Set layout params
             ViewGroup.LayoutParams params = new ViewGroup.LayoutParams(
                     ViewGroup.LayoutParams.MATCH_PARENT,
                     ViewGroup.LayoutParams.MATCH_PARENT
             );
-            nativeView.setLayoutParams(params);
+            errorView.setLayoutParams(params);
+            holder.container.addView(errorView);
+            return;
+        }
 
-            holder.container.addView(nativeView);
+        if (tiView == null) {
+            Log.w(TAG, "TiUIView is null at position: " + position);
+            return;
+        }
 
-        } catch (Exception e) {
-            Log.e(TAG, "Error in onBindViewHolder at position " + position + ": " + e.getMessage(), e);
+        View nativeView = tiView.getNativeView();
+
+        if (nativeView == null) {
+            Log.w(TAG, "Native view is null at position: " + position);
+            return;
+        }
+
+        ViewGroup currentParent = (ViewGroup) nativeView.getParent();
+        if (currentParent != null) {
+            try {
+                currentParent.removeView(nativeView);
+            } catch (Exception e) {
+                Log.e(TAG, "Error removing view from parent: " + e.getMessage());
+            }
+        }
+
+        // Set layout params
+        ViewGroup.LayoutParams params = new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.MATCH_PARENT
+        );
+        nativeView.setLayoutParams(params);
+
+        holder.container.addView(nativeView);
+
+        // Pages created by a data source belong to their holder and are never evicted
+        if (viewProxy != holder.pageProxy) {
+            pageCache.recordRealized(viewProxy, position);
+        }
+    }
+
+    public TiVerticalPagerPageCache getPageCache() {
+        return pageCache;
+    }
+
+    /**
+     * Number of realized data source pages held by this adapter's holders, wherever the
+     * holders currently are: on screen, in RecyclerView's cache or in a pool.
+     */
+    public int getDataSourcePageCount() {
+        return dataSourcePageCount;
+    }
+
+    /**
+     * Moves the count of a holder's data source page to another adapter, a holder from a
+     * shared pool may have been bound by another pager before.
+     */
+    private static void setPageOwner(ViewHolder holder, TiVerticalPagerAdapter owner) {
+        if (holder.pageOwner == owner) {
+            return;
+        }
+        if (holder.pageOwner != null) {
+            holder.pageOwner.dataSourcePageCount--;
+        }
+        holder.pageOwner = owner;
+        if (owner != null) {
+            owner.dataSourcePageCount++;
+        }
+    }
+
+    /**
+     * Drops the page a data source created for this holder, if any.
+     */
+    private void releaseHolderPage(@NonNull ViewHolder holder) {
+        TiViewProxy page = holder.pageProxy;
+        if (page == null) {
+            return;
+        }
+
+        holder.pageProxy = null;
+        setPageOwner(holder, null);
+        holder.container.removeAllViews();
+        if (page.getParent() == pagerProxy) {
+            page.setParent(null);
+        }
+        page.releaseViews();
+    }
+
+    /**
+     * Releases the data source page of a holder RecyclerView is throwing away. The holder may
+     * come from any pager sharing a pool, so the page is detached from whichever pager owns it.
+     */
+    static void releaseDiscardedHolder(RecyclerView.ViewHolder recyclerHolder) {
+        if (!(recyclerHolder instanceof ViewHolder)) {
+            return;
+        }
+
+        ViewHolder holder = (ViewHolder) recyclerHolder;
+        TiViewProxy page = holder.pageProxy;
+        holder.pageProxy = null;
+        holder.boundProxy = null;
+        setPageOwner(holder, null);
+        holder.container.removeAllViews();
+        if (page == null) {
+            return;
+        }
+
+        if (page.getParent() instanceof TiVerticalPagerProxy) {
+            page.setParent(null);
+        }
+        page.releaseViews();
+    }
+
+    @Override
+    public void onViewAttachedToWindow(@NonNull ViewHolder holder) {
+        super.onViewAttachedToWindow(holder);
+
+        // RecyclerView re-attaches cached holders without rebinding them. If the page's
+        // native view was released in the meantime, realize it again.
+        TiViewProxy viewProxy = holder.boundProxy;
+        if (viewProxy == null) {
+            return;
+        }
+
+        TiUIView tiView = viewProxy.peekView();
+        View nativeView = tiView != null ? tiView.getNativeView() : null;
+        if (nativeView == null || nativeView.getParent() != holder.container) {
+            holder.container.removeAllViews();
+            attachPageView(holder, viewProxy, holder.getBindingAdapterPosition());
         }
     }
 
     @Override
     public void onViewRecycled(@NonNull ViewHolder holder) {
         super.onViewRecycled(holder);
+        if (holder.pageProxy != null) {
+            // Data source pages stay attached so the holder can be rebound through updatePage
+            return;
+        }
+        holder.boundProxy = null;
         holder.container.removeAllViews();
     }
 
+    @Override
+    public boolean onFailedToRecycleView(@NonNull ViewHolder holder) {
+        // The holder has transient state and is dropped instead of pooled
+        releaseDiscardedHolder(holder);
+        return false;
+    }
+
     @Override
     public int getItemCount() {
+        if (dataSourceMode) {
+            return dataSourceCount;
+        }
         return viewProxies != null ? viewProxies.size() : 0;
     }
 
-    public void updateData(List<TiViewProxy> newProxies) {
-        this.viewProxies = newProxies != null ? new ArrayList<>(newProxies) : new ArrayList<>();
-        notifyDataSetChanged();
+    /**
+     * Returns the page proxy shown at the given position, or null if a data source
+     * page at that position is not currently bound.
+     */
+    public TiViewProxy getPageProxy(RecyclerView recyclerView, int position) {
+        if (!dataSourceMode) {
+            return (viewProxies != null && position >= 0 && position < viewProxies.size())
+                    ? viewProxies.get(position)
+                    : null;
+        }
+
+        if (recyclerView == null) {
+            return null;
+        }
+
+        RecyclerView.ViewHolder holder = recyclerView.findViewHolderForAdapterPosition(position);
+        return holder instanceof ViewHolder ? ((ViewHolder) holder).pageProxy : null;
+    }
+
+    /**
+     * Switches the adapter to data-source mode and resizes it to the given item count.
+     * Growing or shrinking the count only notifies the affected range.
+     */
+    public void updateItemCount(int count) {
+        count = Math.max(0, count);
+
+        if (!dataSourceMode) {
+            dataSourceMode = true;
+            dataSourceCount = count;
+            viewProxies = TiVerticalPagerViewList.EMPTY;
+            viewTypeCache.clear();
+            notifyDataSetChanged();
+            return;
+        }
+
+        int oldCount = dataSourceCount;
+        dataSourceCount = count;
+
+        if (count > oldCount) {
+            notifyItemRangeInserted(oldCount, count - oldCount);
+        } else if (count < oldCount) {
+            for (int i = viewTypeCache.size() - 1; i >= 0; i--) {
+                if (viewTypeCache.keyAt(i) >= count) {
+                    viewTypeCache.removeAt(i);
+                }
+            }
+            notifyItemRangeRemoved(count, oldCount - count);
+        }
     }
 
-    public void cleanup() {
-        viewCache.clear();
-        if (viewProxies != null) {
-            viewProxies.clear();
+    public void updateData(TiVerticalPagerViewList newProxies) {
+        if (newProxies == null) {
+            newProxies = TiVerticalPagerViewList.EMPTY;
         }
+
+        if (dataSourceMode) {
+            dataSourceMode = false;
+            dataSourceCount = 0;
+            viewTypeCache.clear();
+            this.viewProxies = newProxies;
+            notifyDataSetChanged();
+            return;
+        }
+
+        // Snapshots are immutable, the same one means nothing changed
+        TiVerticalPagerViewList oldProxies = this.viewProxies != null ? this.viewProxies : TiVerticalPagerViewList.EMPTY;
+        if (oldProxies == newProxies) {
+            return;
+        }
+
+        this.viewProxies = newProxies;
+        pageCache.updatePositions(newProxies);
+        dispatchListChanges(oldProxies, newProxies);
+    }
+
+    /**
+     * Sends range notifications for the difference between two page lists instead of
+     * notifyDataSetChanged(), so pages that did not change are never rebound.
+     * Pages are compared by proxy identity. The unchanged head and tail are trimmed first,
+     * which turns plain appends and removals into a single range notification. A single
+     * moved page is detected directly. Only a small remaining middle section goes through
+     * DiffUtil, larger ones fall back to notifyDataSetChanged(), where stable ids keep the
+     * holders of the pages that stayed.
+     */
+    private void dispatchListChanges(TiVerticalPagerViewList oldProxies, TiVerticalPagerViewList newProxies) {
+        int oldSize = oldProxies.size();
+        int newSize = newProxies.size();
+
+        // Chunks shared by both snapshots are skipped without comparing their pages
+        int head = TiVerticalPagerViewList.commonPrefixLength(oldProxies, newProxies);
+        int maxHead = Math.min(oldSize, newSize);
+
+        int tail = 0;
+        int maxTail = maxHead - head;
+        while (tail < maxTail && oldProxies.get(oldSize - 1 - tail) == newProxies.get(newSize - 1 - tail)) {
+            tail++;
+        }
+
+        final int oldCount = oldSize - head - tail;
+        final int newCount = newSize - head - tail;
+
+        if (oldCount == 0 && newCount == 0) {
+            return;
+        }
+
+        if (oldCount == 0) {
+            notifyItemRangeInserted(head, newCount);
+            return;
+        }
+
+        if (newCount == 0) {
+            notifyItemRangeRemoved(head, oldCount);
+            return;
+        }
+
+        final List<TiViewProxy> oldWindow = oldProxies.subList(head, head + oldCount);
+        final List<TiViewProxy> newWindow = newProxies.subList(head, head + newCount);
+
+        if (oldCount == newCount && dispatchSingleMove(oldWindow, newWindow, head)) {
+            return;
+        }
+
+        if (oldCount + newCount > MAX_DIFF_WINDOW) {
+            notifyDataSetChanged();
+            return;
+        }
+
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldCount;
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newCount;
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldWindow.get(oldItemPosition) == newWindow.get(newItemPosition);
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                // A page proxy renders itself, so the same proxy never needs a rebind
+                return true;
+            }
+        }, false);
+
+        result.dispatchUpdatesTo(new OffsetListUpdateCallback(this, head));
+    }
+
+    /**
+     * Notifies a move when the new window is the old one with its first page moved to the end
+     * or its last page moved to the front, which is what moveView() produces once the head
+     * and tail are trimmed.
+     */
+    private boolean dispatchSingleMove(List<TiViewProxy> oldWindow, List<TiViewProxy> newWindow, int offset) {
+        int last = oldWindow.size() - 1;
+        if (last < 1) {
+            return false;
+        }
+
+        if (oldWindow.get(0) == newWindow.get(last)) {
+            for (int i = 0; i < last; i++) {
+                if (oldWindow.get(i + 1) != newWindow.get(i)) {
+                    return false;
+                }
+            }
+            notifyItemMoved(offset, offset + last);
+            return true;
+        }
+
+        if (oldWindow.get(last) == newWindow.get(0)) {
+            for (int i = 0; i < last; i++) {
+                if (oldWindow.get(i) != newWindow.get(i + 1)) {
+                    return false;
+                }
+            }
+            notifyItemMoved(offset + last, offset);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Forgets the cached template of every position, used when the data source changes
+     * which template a page uses.
+     */
+    public void invalidateTemplates() {
+        if (dataSourceMode) {
+            viewTypeCache.clear();
+            notifyDataSetChanged();
+        }
+    }
+
+    public void cleanup() {
+        pageCache.clear();
+        viewTypeCache.clear();
+        viewProxies = TiVerticalPagerViewList.EMPTY;
         pagerProxy = null;
     }
 
+    private static class OffsetListUpdateCallback implements ListUpdateCallback {
+        private final RecyclerView.Adapter<?> adapter;
+        private final int offset;
+
+        OffsetListUpdateCallback(RecyclerView.Adapter<?> adapter, int offset) {
+            this.adapter = adapter;
+            this.offset = offset;
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            adapter.notifyItemRangeInserted(position + offset, count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            adapter.notifyItemRangeRemoved(position + offset, count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            adapter.notifyItemMoved(fromPosition + offset, toPosition + offset);
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            adapter.notifyItemRangeChanged(position + offset, count, payload);
+        }
+    }
+
+    /**
+     * Holder view of a page. It notes the first draw after a page was bound, which is when
+     * the page stops being blank on screen.
+     */
+    static class PageContainer extends android.widget.FrameLayout {
+        ViewHolder holder;
+        ContentDrawnListener listener;
+        long contentDrawnTime = 0;
+
+        PageContainer(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void dispatchDraw(Canvas canvas) {
+            super.dispatchDraw(canvas);
+            if (contentDrawnTime == 0 && getChildCount() > 0) {
+                contentDrawnTime = SystemClock.uptimeMillis();
+                TiViewProxy page = holder.pageProxy != null ? holder.pageProxy : holder.boundProxy;
+                if (listener != null && page != null) {
+                    listener.onPageContentDrawn(page, contentDrawnTime);
+                }
+            }
+        }
+    }
+
     static class ViewHolder extends RecyclerView.ViewHolder {
-        android.widget.FrameLayout container;
+        PageContainer container;
+        TiViewProxy pageProxy; // Page created by the data source for this holder
+        String templateId; // Template the page was created for, null without templates
+        TiViewProxy boundProxy; // Page from the 'views' list currently shown by this holder
+        TiVerticalPagerAdapter pageOwner; // Adapter counting pageProxy as realized
 
         ViewHolder(View itemView) {
             super(itemView);
-            container = (android.widget.FrameLayout) itemView;
+            container = (PageContainer) itemView;
+            container.holder = this;
             container.setLayoutParams(new ViewGroup.LayoutParams(
                     ViewGroup.LayoutParams.MATCH_PARENT,
                     ViewGroup.LayoutParams.MATCH_PARENT
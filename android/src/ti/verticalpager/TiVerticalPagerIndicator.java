@@ -1,19 +1,29 @@
 package ti.verticalpager;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.view.View;
+import android.view.animation.DecelerateInterpolator;
 
 import androidx.annotation.NonNull;
 
 public class TiVerticalPagerIndicator extends View {
 
-    private static final int MAX_VISIBLE_INDICATORS = 9;
+    public static final int DEFAULT_MAX_VISIBLE_DOTS = 9;
 
+    public static final int ORIENTATION_HORIZONTAL = 0;
+    public static final int ORIENTATION_VERTICAL = 1;
+
+    private static final long TRANSITION_DURATION = 200;
+
+    private int orientation = ORIENTATION_VERTICAL;
+    private int maxVisibleDots = DEFAULT_MAX_VISIBLE_DOTS;
     private int numberOfPages = 0;
     private int currentPage = 0;
-    private float currentPositionOffset = 0f;
     private int pageIndicatorColor = 0x80FFFFFF;
     private int currentPageIndicatorColor = 0xFFFFFFFF;
 
@@ -24,6 +34,32 @@ public class TiVerticalPagerIndicator extends View {
 
     private Paint paint;
 
+    // Position drawn on screen, in pages. Follows the scroll directly and is animated towards
+    // the current page when it changes without a scroll.
+    private float displayPosition = 0f;
+
+    // Dots animated out after removePages(). While removalRemaining goes from 1 to 0 the removed
+    // dots shrink and the gap they leave closes.
+    private int removedIndex = -1;
+    private int removedCount = 0;
+    private float removalRemaining = 0f;
+
+    // A single animator drives every transition. It interpolates from the values captured when
+    // the transition starts, so a new transition can take over a running one without a jump.
+    private ValueAnimator transitionAnimator;
+    private float positionFrom;
+    private float positionTo;
+    private float removalFrom;
+
+    // Geometry derived from the configuration, rebuilt only when the configuration changes.
+    // The tables are indexed by the distance of a dot from the current position in pixels.
+    private boolean geometryDirty = true;
+    private float dotStep;
+    private float[] emphasisRadius = new float[0];
+    private int[] emphasisColor = new int[0];
+    private float[] radiusByDistance = new float[0];
+    private int[] colorByDistance = new int[0];
+
     public TiVerticalPagerIndicator(Context context) {
         super(context);
         init();
@@ -33,163 +69,393 @@ public class TiVerticalPagerIndicator extends View {
         paint = new Paint(Paint.ANTI_ALIAS_FLAG);
     }
 
+    /**
+     * Lays the dots out along the given axis. Drawing works on a main axis (along the dots) and a
+     * cross axis, so both orientations share the same geometry and cost.
+     */
+    public void setOrientation(int orientation) {
+        if (this.orientation != orientation) {
+            this.orientation = orientation;
+            requestLayout();
+            invalidate();
+        }
+    }
+
+    /**
+     * Number of dots shown before the indicator switches to the condensed sliding window.
+     * Even values are rounded up so the current dot stays centered.
+     */
+    public void setMaxVisibleDots(int maxVisibleDots) {
+        int value = Math.max(1, maxVisibleDots) | 1;
+        if (this.maxVisibleDots != value) {
+            this.maxVisibleDots = value;
+            requestLayout();
+            invalidateGeometry();
+        }
+    }
+
     public void setNumberOfPages(int numberOfPages) {
+        if (this.numberOfPages == numberOfPages) {
+            return;
+        }
         this.numberOfPages = numberOfPages;
+        clearRemoval();
         requestLayout();
         invalidate();
     }
 
+    /**
+     * Removes dots with an animation: they shrink in place while the following dots close the gap.
+     */
+    public void removePages(int index, int count) {
+        if (index < 0 || index >= numberOfPages || count <= 0) {
+            return;
+        }
+        count = Math.min(count, numberOfPages - index);
+
+        // Only one group of removed dots is tracked, an earlier one is finished first
+        clearRemoval();
+        numberOfPages -= count;
+        removedIndex = index;
+        removedCount = count;
+        removalRemaining = 1f;
+
+        // Dots after the removed range keep their place on screen while the gap is still open
+        if (displayPosition >= index + count) {
+            displayPosition -= count;
+        } else if (displayPosition >= index) {
+            displayPosition = index;
+        }
+        if (currentPage >= index + count) {
+            currentPage -= count;
+        } else if (currentPage >= index) {
+            currentPage = Math.max(0, Math.min(index, numberOfPages - 1));
+        }
+
+        startTransition(currentPage);
+    }
+
     public void setCurrentPage(int currentPage) {
-        if (this.currentPage != currentPage) {
-            this.currentPage = currentPage;
-            this.currentPositionOffset = 0f;
-            invalidate();
+        this.currentPage = currentPage;
+        if (displayPosition != currentPage || (transitionAnimator != null && transitionAnimator.isRunning())) {
+            startTransition(currentPage);
         }
     }
 
     public void setCurrentPageWithOffset(int position, float positionOffset) {
+        float newPosition = position + positionOffset;
         this.currentPage = position;
-        this.currentPositionOffset = positionOffset;
+
+        // The scroll drives the position directly, a running transition only keeps the removal
+        if (transitionAnimator != null && transitionAnimator.isRunning()) {
+            positionFrom = newPosition;
+            positionTo = newPosition;
+        }
+        if (displayPosition == newPosition) {
+            return;
+        }
+        displayPosition = newPosition;
         invalidate();
     }
 
     public void setPageIndicatorColor(int color) {
         this.pageIndicatorColor = color;
-        invalidate();
+        invalidateGeometry();
     }
 
     public void setCurrentPageIndicatorColor(int color) {
         this.currentPageIndicatorColor = color;
-        invalidate();
+        invalidateGeometry();
     }
 
     public void setNormalDotSize(float size) {
         this.normalDotSize = size;
         requestLayout();
-        invalidate();
+        invalidateGeometry();
     }
 
     public void setActiveDotSize(float size) {
         this.activeDotSize = size;
         requestLayout();
-        invalidate();
+        invalidateGeometry();
     }
 
     public void setMinDotSize(float size) {
         this.minDotSize = size;
         requestLayout();
-        invalidate();
+        invalidateGeometry();
     }
 
     public void setDotSpacing(float spacing) {
         this.dotSpacing = spacing;
         requestLayout();
+        invalidateGeometry();
+    }
+
+    private void invalidateGeometry() {
+        geometryDirty = true;
         invalidate();
     }
 
+    private void startTransition(float targetPosition) {
+        if (!isAttachedToWindow()) {
+            displayPosition = targetPosition;
+            clearRemoval();
+            invalidate();
+            return;
+        }
+
+        if (transitionAnimator == null) {
+            transitionAnimator = ValueAnimator.ofFloat(0f, 1f);
+            transitionAnimator.setDuration(TRANSITION_DURATION);
+            transitionAnimator.setInterpolator(new DecelerateInterpolator());
+            transitionAnimator.addUpdateListener(animation -> {
+                float fraction = (float) animation.getAnimatedValue();
+                displayPosition = positionFrom + (positionTo - positionFrom) * fraction;
+                removalRemaining = removalFrom * (1f - fraction);
+                invalidate();
+            });
+            transitionAnimator.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    if (removedCount > 0 && removalRemaining == 0f) {
+                        clearRemoval();
+                        requestLayout();
+                    }
+                }
+            });
+        }
+
+        positionFrom = displayPosition;
+        positionTo = targetPosition;
+        removalFrom = removalRemaining;
+        transitionAnimator.cancel();
+        transitionAnimator.start();
+    }
+
+    private void clearRemoval() {
+        removedIndex = -1;
+        removedCount = 0;
+        removalRemaining = 0f;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        if (transitionAnimator != null) {
+            transitionAnimator.end();
+        }
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * Precomputes the radius and color of a dot for every pixel distance from the current
+     * position, so drawing a frame is only table lookups. The emphasis table eases the current
+     * dot into a normal one over one step, the condensed table continues with a smooth falloff
+     * towards the edges of the window.
+     */
+    private void rebuildGeometry() {
+        geometryDirty = false;
+
+        dotStep = activeDotSize * 2 + dotSpacing;
+        int currentDotColor = withAlpha(currentPageIndicatorColor, 255);
+        int normalDotColor = withAlpha(pageIndicatorColor, 153);
+        int nearColor = withAlpha(pageIndicatorColor, 204);
+        int farColor = withAlpha(pageIndicatorColor, 128);
+
+        int stepSize = (int) Math.ceil(dotStep) + 1;
+        if (emphasisRadius.length != stepSize) {
+            emphasisRadius = new float[stepSize];
+            emphasisColor = new int[stepSize];
+        }
+        for (int distance = 0; distance < stepSize; distance++) {
+            float t = smoothStep(distance / dotStep);
+            emphasisRadius[distance] = lerp(activeDotSize, normalDotSize, t);
+            emphasisColor[distance] = blendColor(currentDotColor, normalDotColor, t);
+        }
+
+        // One step more than half the window so the dot sliding in is already on the curve
+        float maxDistance = (maxVisibleDots / 2 + 1) * dotStep;
+        int tableSize = (int) Math.ceil(maxDistance) + 1;
+        if (radiusByDistance.length != tableSize) {
+            radiusByDistance = new float[tableSize];
+            colorByDistance = new int[tableSize];
+        }
+
+        for (int distance = 0; distance < tableSize; distance++) {
+            if (distance <= dotStep) {
+                float t = smoothStep(distance / dotStep);
+                radiusByDistance[distance] = lerp(activeDotSize, normalDotSize, t);
+                colorByDistance[distance] = blendColor(currentDotColor, nearColor, t);
+            } else {
+                float t = smoothStep((distance - dotStep) / (maxDistance - dotStep));
+                radiusByDistance[distance] = lerp(normalDotSize, minDotSize, t);
+                colorByDistance[distance] = blendColor(nearColor, farColor, t);
+            }
+        }
+    }
+
+    private static float smoothStep(float t) {
+        if (t <= 0f) {
+            return 0f;
+        }
+        if (t >= 1f) {
+            return 1f;
+        }
+        return t * t * (3f - 2f * t);
+    }
+
+    private static float lerp(float from, float to, float t) {
+        return from + (to - from) * t;
+    }
+
+    private static int blendColor(int from, int to, float t) {
+        int a = (int) lerp((from >>> 24) & 0xFF, (to >>> 24) & 0xFF, t);
+        int r = (int) lerp((from >> 16) & 0xFF, (to >> 16) & 0xFF, t);
+        int g = (int) lerp((from >> 8) & 0xFF, (to >> 8) & 0xFF, t);
+        int b = (int) lerp(from & 0xFF, to & 0xFF, t);
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    private static int withAlpha(int color, int alpha) {
+        return (color & 0x00FFFFFF) | (alpha << 24);
+    }
+
+    private static int scaleAlpha(int color, float scale) {
+        return withAlpha(color, (int) (((color >>> 24) & 0xFF) * scale));
+    }
+
+    /**
+     * Slot of a page along the main axis. Pages after removed dots are pushed back by the part
+     * of the gap that has not closed yet.
+     */
+    private float slotOf(float position) {
+        if (removedCount > 0 && position >= removedIndex) {
+            return position + removedCount * removalRemaining;
+        }
+        return position;
+    }
+
+    private static int lookup(float offset, int lastIndex) {
+        int distance = (int) (offset < 0 ? -offset : offset);
+        return distance > lastIndex ? lastIndex : distance;
+    }
+
     @Override
     protected void onDraw(@NonNull Canvas canvas) {
 
         super.onDraw(canvas);
 
-        if (numberOfPages <= 0) {
+        if (numberOfPages <= 0 && removedCount == 0) {
             return;
         }
 
-        float viewHeight = getHeight();
-        float viewWidth = getWidth();
+        if (geometryDirty) {
+            rebuildGeometry();
+        }
 
-        if (numberOfPages <= MAX_VISIBLE_INDICATORS) {
-            drawAllIndicators(canvas, viewWidth, viewHeight);
+        boolean vertical = orientation == ORIENTATION_VERTICAL;
+        float mainLength = vertical ? getHeight() : getWidth();
+        float crossLength = vertical ? getWidth() : getHeight();
+
+        if (numberOfPages + removedCount <= maxVisibleDots) {
+            drawAllIndicators(canvas, crossLength, mainLength);
+        } else {
+            drawCondensedIndicatorsWithSliding(canvas, crossLength, mainLength);
+        }
+    }
+
+    private void drawDot(Canvas canvas, float cross, float main, float radius) {
+        if (orientation == ORIENTATION_VERTICAL) {
+            canvas.drawCircle(cross, main, radius, paint);
         } else {
-            drawCondensedIndicatorsWithSliding(canvas, viewWidth, viewHeight);
+            canvas.drawCircle(main, cross, radius, paint);
+        }
+    }
+
+    private void drawRemovedDots(Canvas canvas, float centerX, float firstY, float[] radii, int[] colors,
+                                 float anchorY) {
+        if (removedCount == 0 || removalRemaining <= 0f) {
+            return;
+        }
+
+        int lastIndex = radii.length - 1;
+        float gapStep = dotStep * removalRemaining;
+        float y = firstY;
+        for (int i = 0; i < removedCount; i++, y += gapStep) {
+            int distance = lookup(y - anchorY, lastIndex);
+            paint.setColor(scaleAlpha(colors[distance], removalRemaining));
+            drawDot(canvas, centerX, y, radii[distance] * removalRemaining);
         }
     }
 
     private void drawAllIndicators(Canvas canvas, float viewWidth, float viewHeight) {
 
-        float totalHeight = (activeDotSize * 2 * numberOfPages) + (dotSpacing * (numberOfPages - 1));
+        float totalSlots = numberOfPages + removedCount * removalRemaining;
+        float totalHeight = (dotStep * totalSlots) - dotSpacing;
         float startY = (viewHeight - totalHeight) / 2 + activeDotSize;
         float centerX = viewWidth / 2;
+        float currentY = startY + slotOf(displayPosition) * dotStep;
+        int lastIndex = emphasisRadius.length - 1;
 
         for (int i = 0; i < numberOfPages; i++) {
-            boolean isCurrent = (i == currentPage);
-            float radius = isCurrent ? activeDotSize : normalDotSize;
-            int alpha = isCurrent ? 255 : 153;
-
-            paint.setColor(isCurrent ? currentPageIndicatorColor : pageIndicatorColor);
-            paint.setAlpha(alpha);
+            float y = startY + slotOf(i) * dotStep;
+            int distance = lookup(y - currentY, lastIndex);
 
-            float y = startY + (i * (activeDotSize * 2 + dotSpacing));
-            canvas.drawCircle(centerX, y, radius, paint);
+            paint.setColor(emphasisColor[distance]);
+            drawDot(canvas, centerX, y, emphasisRadius[distance]);
         }
+
+        drawRemovedDots(canvas, centerX, startY + removedIndex * dotStep, emphasisRadius, emphasisColor, currentY);
     }
 
     private void drawCondensedIndicatorsWithSliding(Canvas canvas, float viewWidth, float viewHeight) {
 
-        int indicatorsToShow = MAX_VISIBLE_INDICATORS;
-        int centerIndex = indicatorsToShow / 2;
+        int centerIndex = maxVisibleDots / 2;
 
+        // Widths and heights are along the cross and main axis, y runs along the dots
         float baseCenterY = viewHeight / 2;
         float centerX = viewWidth / 2;
+        float margin = activeDotSize * 2;
+        int lastIndex = radiusByDistance.length - 1;
 
-        float scrollOffset = -currentPositionOffset * (activeDotSize * 2 + dotSpacing);
+        // The whole strip is translated by the display position, each dot only looks up its size
+        float firstY = baseCenterY - slotOf(displayPosition) * dotStep;
 
-        int startPage = Math.max(0, currentPage - centerIndex - 1);
-        int endPage = Math.min(numberOfPages - 1, currentPage + centerIndex + 2); // +2 para mostrar a próxima entrando
+        int anchorPage = (int) displayPosition;
+        int startPage = Math.max(0, anchorPage - centerIndex - 1);
+        int endPage = Math.min(numberOfPages - 1, anchorPage + centerIndex + 2); // +2 para mostrar a próxima entrando
 
         for (int pageIndex = startPage; pageIndex <= endPage; pageIndex++) {
-            int relativePosition = pageIndex - currentPage;
-
-            float y = baseCenterY + (relativePosition * (activeDotSize * 2 + dotSpacing)) + scrollOffset;
-
-            if (y < -activeDotSize * 2 || y > viewHeight + activeDotSize * 2) {
+            float y = firstY + slotOf(pageIndex) * dotStep;
+            if (y < -margin || y > viewHeight + margin) {
                 continue;
             }
 
-            boolean isCurrent = (pageIndex == currentPage);
-
-            float distanceFromCenter = Math.abs(y - baseCenterY);
-            float maxDistance = ((float) indicatorsToShow / 2) * (activeDotSize * 2 + dotSpacing);
-
-            float radius;
-            int alpha;
-
-            if (isCurrent) {
-                radius = activeDotSize;
-                alpha = 255;
-            } else {
-                float normalizedDistance = Math.min(1f, distanceFromCenter / maxDistance);
-
-                if (normalizedDistance > 0.8f) {
-                    radius = minDotSize;
-                    alpha = 128;
-                } else if (normalizedDistance > 0.5f) {
-                    radius = normalDotSize * 0.8f;
-                    alpha = 180;
-                } else {
-                    radius = normalDotSize;
-                    alpha = 204;
-                }
-            }
-
-            paint.setColor(isCurrent ? currentPageIndicatorColor : pageIndicatorColor);
-            paint.setAlpha(alpha);
-            canvas.drawCircle(centerX, y, radius, paint);
+            int distance = lookup(y - baseCenterY, lastIndex);
+            paint.setColor(colorByDistance[distance]);
+            drawDot(canvas, centerX, y, radiusByDistance[distance]);
         }
+
+        drawRemovedDots(canvas, centerX, firstY + removedIndex * dotStep, radiusByDistance, colorByDistance,
+                baseCenterY);
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        int desiredWidth = (int) (activeDotSize * 2 + 16);
+        int crossSize = (int) (activeDotSize * 2 + 16);
 
-        int visibleIndicators = Math.min(numberOfPages, MAX_VISIBLE_INDICATORS);
-        int desiredHeight = (int) ((activeDotSize * 2 * visibleIndicators) +
+        // Room for dots still animating out is kept until the removal finishes
+        int visibleIndicators = Math.min(numberOfPages + removedCount, maxVisibleDots);
+        int mainSize = (int) ((activeDotSize * 2 * visibleIndicators) +
                 (dotSpacing * (visibleIndicators - 1)) + 40);
 
+        boolean vertical = orientation == ORIENTATION_VERTICAL;
+        int desiredWidth = vertical ? crossSize : mainSize;
+        int desiredHeight = vertical ? mainSize : crossSize;
+
         int width = resolveSize(desiredWidth, widthMeasureSpec);
         int height = resolveSize(desiredHeight, heightMeasureSpec);
 
         setMeasuredDimension(width, height);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,340 @@
+package ti.verticalpager;
+
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import org.appcelerator.kroll.KrollDict;
+import org.appcelerator.titanium.proxy.TiViewProxy;
+
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+/**
+ * Performance counters of one pager: bind and view creation latency, pre-load hits,
+ * frames dropped while dragging, event rate and the outcome of recent page transitions.
+ *
+ * Counters and histograms are recorded into fixed primitive arrays and fields on the UI
+ * thread. The one allocation while recording is the weak map entry noting which path created
+ * a page, once per created view. Everything else is only built when a snapshot is taken.
+ */
+public class TiVerticalPagerMetrics implements Choreographer.FrameCallback {
+
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 16_666_667L;
+
+    public static final int CREATED_BY_UNKNOWN = 0;
+    public static final int CREATED_BY_BIND = 1;
+    public static final int CREATED_BY_PRELOAD = 2;
+
+    // Number of recent transitions the rolling aggregate covers
+    private static final int TRANSITION_WINDOW = 100;
+
+    private final Histogram bindDuration = new Histogram();
+    private final Histogram createViewDuration = new Histogram();
+
+    private long preloadHits = 0;
+    private long preloadMisses = 0;
+
+    private long frameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+    private boolean monitoringFrames = false;
+    private long lastFrameTimeNanos = 0;
+    private long dragFrames = 0;
+    private long droppedFrames = 0;
+
+    // Which path created the native view of each page, weak so pages can still be collected
+    private final WeakHashMap<TiViewProxy, Integer> pageOrigins = new WeakHashMap<>();
+
+    // Ring buffer of the last transitions. A time to content of -1 means the page has not
+    // been drawn yet.
+    private final boolean[] transitionHits = new boolean[TRANSITION_WINDOW];
+    private final int[] transitionOrigins = new int[TRANSITION_WINDOW];
+    private final long[] transitionTimeToContent = new long[TRANSITION_WINDOW];
+    private long transitionCount = 0;
+
+    private long eventsFired = 0;
+    private long eventsAtLastSnapshot = 0;
+    private long lastSnapshotTime = SystemClock.uptimeMillis();
+
+    public void recordBind(long durationNanos) {
+        bindDuration.record(durationNanos);
+    }
+
+    public void recordViewCreated(long durationNanos) {
+        createViewDuration.record(durationNanos);
+    }
+
+    /**
+     * Called when a page is bound: a hit means its native view was already realized.
+     */
+    public void recordPreloadResult(boolean hit) {
+        if (hit) {
+            preloadHits++;
+        } else {
+            preloadMisses++;
+        }
+    }
+
+    public void recordPageCreated(TiViewProxy page, int createdBy) {
+        if (page != null) {
+            pageOrigins.put(page, createdBy);
+        }
+    }
+
+    public int getCreatedBy(TiViewProxy page) {
+        Integer createdBy = page != null ? pageOrigins.get(page) : null;
+        return createdBy != null ? createdBy : CREATED_BY_UNKNOWN;
+    }
+
+    public static String createdByName(int createdBy) {
+        switch (createdBy) {
+            case CREATED_BY_BIND:
+                return "bind";
+            case CREATED_BY_PRELOAD:
+                return "preload";
+            default:
+                return "unknown";
+        }
+    }
+
+    /**
+     * Adds a page transition to the rolling aggregate and returns its sequence number,
+     * used to complete a time to content that was not known yet.
+     */
+    public long recordTransition(boolean preloadHit, int createdBy, long timeToContentMs) {
+        long sequence = transitionCount++;
+        int slot = (int) (sequence % TRANSITION_WINDOW);
+        transitionHits[slot] = preloadHit;
+        transitionOrigins[slot] = createdBy;
+        transitionTimeToContent[slot] = timeToContentMs;
+        return sequence;
+    }
+
+    public void completeTransition(long sequence, long timeToContentMs) {
+        if (sequence >= 0 && sequence < transitionCount && transitionCount - sequence <= TRANSITION_WINDOW) {
+            transitionTimeToContent[(int) (sequence % TRANSITION_WINDOW)] = timeToContentMs;
+        }
+    }
+
+    public void onEventFired() {
+        eventsFired++;
+    }
+
+    public void setRefreshRate(float refreshRate) {
+        frameIntervalNanos = refreshRate > 1f ? (long) (1_000_000_000L / refreshRate) : DEFAULT_FRAME_INTERVAL_NANOS;
+    }
+
+    /**
+     * Starts counting frames, meant to run while the user drags.
+     */
+    public void startFrameMonitor() {
+        if (monitoringFrames) {
+            return;
+        }
+        monitoringFrames = true;
+        lastFrameTimeNanos = 0;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    public void stopFrameMonitor() {
+        if (!monitoringFrames) {
+            return;
+        }
+        monitoringFrames = false;
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!monitoringFrames) {
+            return;
+        }
+
+        if (lastFrameTimeNanos > 0) {
+            long interval = frameTimeNanos - lastFrameTimeNanos;
+            // Round to the nearest number of vsyncs, anything past one was skipped
+            long frames = (interval + frameIntervalNanos / 2) / frameIntervalNanos;
+            if (frames > 1) {
+                droppedFrames += frames - 1;
+            }
+            dragFrames++;
+        }
+
+        lastFrameTimeNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    public void reset() {
+        bindDuration.reset();
+        createViewDuration.reset();
+        preloadHits = 0;
+        preloadMisses = 0;
+        dragFrames = 0;
+        droppedFrames = 0;
+        transitionCount = 0;
+        eventsFired = 0;
+        eventsAtLastSnapshot = 0;
+        lastSnapshotTime = SystemClock.uptimeMillis();
+    }
+
+    /**
+     * Builds the JS representation. The event rate covers the time since the previous snapshot.
+     */
+    public KrollDict toDict(int realizedViews) {
+        long now = SystemClock.uptimeMillis();
+        long elapsed = now - lastSnapshotTime;
+        double eventsPerSecond = elapsed > 0 ? (eventsFired - eventsAtLastSnapshot) * 1000.0 / elapsed : 0;
+        eventsAtLastSnapshot = eventsFired;
+        lastSnapshotTime = now;
+
+        long preloadTotal = preloadHits + preloadMisses;
+
+        KrollDict data = new KrollDict();
+        data.put("bindDuration", bindDuration.toDict());
+        data.put("createViewDuration", createViewDuration.toDict());
+        data.put("preloadHits", preloadHits);
+        data.put("preloadMisses", preloadMisses);
+        data.put("preloadHitRatio", preloadTotal > 0 ? (double) preloadHits / preloadTotal : 0);
+        data.put("dragFrames", dragFrames);
+        data.put("droppedFrames", droppedFrames);
+        data.put("realizedViews", realizedViews);
+        data.put("eventsFired", eventsFired);
+        data.put("eventsPerSecond", eventsPerSecond);
+        data.put("transitions", transitionsToDict());
+        return data;
+    }
+
+    private KrollDict transitionsToDict() {
+        int count = (int) Math.min(transitionCount, TRANSITION_WINDOW);
+        int hits = 0;
+        int blank = 0;
+        int preloaded = 0;
+        int measured = 0;
+        long[] times = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            if (transitionHits[i]) {
+                hits++;
+            }
+            if (transitionOrigins[i] == CREATED_BY_PRELOAD) {
+                preloaded++;
+            }
+            long time = transitionTimeToContent[i];
+            if (time != 0) {
+                // Still pending or drawn after the pager settled
+                blank++;
+            }
+            if (time >= 0) {
+                times[measured++] = time;
+            }
+        }
+        Arrays.sort(times, 0, measured);
+
+        KrollDict data = new KrollDict();
+        data.put("count", count);
+        data.put("preloadHitRatio", count > 0 ? (double) hits / count : 0);
+        data.put("createdByPreloadRatio", count > 0 ? (double) preloaded / count : 0);
+        data.put("blankRatio", count > 0 ? (double) blank / count : 0);
+        data.put("timeToContentP50", percentile(times, measured, 0.50));
+        data.put("timeToContentP95", percentile(times, measured, 0.95));
+        data.put("timeToContentMax", measured > 0 ? times[measured - 1] : 0);
+        return data;
+    }
+
+    private static long percentile(long[] sorted, int length, double percentile) {
+        if (length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(length * percentile) - 1;
+        return sorted[Math.max(0, Math.min(length - 1, index))];
+    }
+
+    /**
+     * Latency histogram with fixed buckets from 50us to about half a second. Buckets grow by
+     * 10% up to 8ms and are 0.5ms wide from there to 50ms, so percentiles around the frame
+     * budget are exact to half a millisecond. Percentiles are reported as the upper bound of
+     * their bucket, capped by the largest sample.
+     */
+    static class Histogram {
+        private static final long[] BUCKET_LIMITS_NANOS = buildBucketLimits();
+        private static final int BUCKET_COUNT = BUCKET_LIMITS_NANOS.length;
+
+        private static long[] buildBucketLimits() {
+            long[] limits = new long[256];
+            int count = 0;
+
+            double limit = 50_000;
+            while (limit < 8_000_000) {
+                limits[count++] = (long) limit;
+                limit *= 1.1;
+            }
+            for (long linear = 8_000_000; linear <= 50_000_000; linear += 500_000) {
+                limits[count++] = linear;
+            }
+            limit = 50_000_000;
+            while (limit < 500_000_000) {
+                limit *= 1.1;
+                limits[count++] = (long) limit;
+            }
+            return Arrays.copyOf(limits, count);
+        }
+
+        // The last slot counts samples above the largest bucket
+        private final long[] counts = new long[BUCKET_COUNT + 1];
+        private long count = 0;
+        private long totalNanos = 0;
+        private long maxNanos = 0;
+
+        void record(long nanos) {
+            // First bucket whose limit is at least the sample, BUCKET_COUNT when above all
+            int bucket = Arrays.binarySearch(BUCKET_LIMITS_NANOS, nanos);
+            if (bucket < 0) {
+                bucket = -bucket - 1;
+            }
+            counts[bucket]++;
+            count++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        void reset() {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = 0;
+            }
+            count = 0;
+            totalNanos = 0;
+            maxNanos = 0;
+        }
+
+        long percentileNanos(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            long target = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(BUCKET_LIMITS_NANOS[i], maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        KrollDict toDict() {
+            KrollDict data = new KrollDict();
+            data.put("count", count);
+            data.put("p50", toMillis(percentileNanos(0.50)));
+            data.put("p95", toMillis(percentileNanos(0.95)));
+            data.put("p99", toMillis(percentileNanos(0.99)));
+            data.put("max", toMillis(maxNanos));
+            data.put("average", toMillis(count > 0 ? totalNanos / count : 0));
+            return data;
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -24,6 +24,22 @@ public class TiVerticalPagerModule extends KrollModule
 
 	@Kroll.constant
 	public static final int INDICATOR_TYPE_VERTICAL = 1;
+
+	@Kroll.constant
+	public static final int PAGE_TRANSFORMER_NONE = TiVerticalPagerPageTransformers.TYPE_NONE;
+
+	@Kroll.constant
+	public static final int PAGE_TRANSFORMER_DEPTH = TiVerticalPagerPageTransformers.TYPE_DEPTH;
+
+	@Kroll.constant
+	public static final int PAGE_TRANSFORMER_ZOOM_OUT = TiVerticalPagerPageTransformers.TYPE_ZOOM_OUT;
+
+	@Kroll.constant
+	public static final int PAGE_TRANSFORMER_PARALLAX = TiVerticalPagerPageTransformers.TYPE_PARALLAX;
+
+	@Kroll.constant
+	public static final int PAGE_TRANSFORMER_STACK = TiVerticalPagerPageTransformers.TYPE_STACK;
+
 	private static final String LCAT = "TiVerticalPager";
 
 	public TiVerticalPagerModule()
@@ -49,5 +65,16 @@ public class TiVerticalPagerModule extends KrollModule
 
 		return proxy;
 	}
+
+	@Kroll.method
+	public TiVerticalPagerRecycledViewPoolProxy createRecycledViewPool(@Kroll.argument(optional = true) KrollDict options) {
+		TiVerticalPagerRecycledViewPoolProxy pool = new TiVerticalPagerRecycledViewPoolProxy();
+
+		if (options != null) {
+			pool.handleCreationDict(options);
+		}
+
+		return pool;
+	}
 }
 
@@ -0,0 +1,177 @@
+package ti.verticalpager;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import org.appcelerator.titanium.proxy.TiViewProxy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queues changes to the page list and applies them on the UI thread once per frame.
+ *
+ * Changes may be queued from any thread. They are applied in the order they were queued,
+ * and everything queued before a frame reaches the adapter as a single update. Replacing
+ * the whole list drops the changes queued before it, they would be overwritten anyway.
+ */
+public class TiVerticalPagerMutationQueue implements Choreographer.FrameCallback, Runnable {
+
+    public static final int TYPE_SET = 0;
+    public static final int TYPE_INSERT = 1;
+    public static final int TYPE_REMOVE = 2;
+    public static final int TYPE_REPLACE = 3;
+    public static final int TYPE_MOVE = 4;
+
+    public static final class Mutation {
+        public final int type;
+        public final int index;
+        // Page count for removals, target index for moves
+        public final int count;
+        public final List<TiViewProxy> pages;
+
+        public Mutation(int type, int index, int count, List<TiViewProxy> pages) {
+            this.type = type;
+            this.index = index;
+            this.count = count;
+            this.pages = pages;
+        }
+
+        /**
+         * Applies the change to a snapshot. Out of range changes return the snapshot unchanged.
+         */
+        public TiVerticalPagerViewList apply(TiVerticalPagerViewList list) {
+            int size = list.size();
+            switch (type) {
+                case TYPE_SET:
+                    return list.withPages(pages);
+                case TYPE_INSERT:
+                    return list.withInserted(Math.max(0, Math.min(index, size)), pages);
+                case TYPE_REMOVE:
+                    if (index < 0 || index >= size || count <= 0) {
+                        return list;
+                    }
+                    return list.withRemoved(index, Math.min(size, index + count));
+                case TYPE_REPLACE:
+                    if (index < 0 || index > size) {
+                        return list;
+                    }
+                    return list.withReplaced(index, pages);
+                case TYPE_MOVE:
+                    if (index < 0 || index >= size || count < 0 || count >= size) {
+                        return list;
+                    }
+                    return list.withMoved(index, count);
+                default:
+                    return list;
+            }
+        }
+    }
+
+    public interface Listener {
+        /**
+         * Applies one change to the pages, called on the UI thread while holding the lock.
+         */
+        void applyMutation(Mutation mutation);
+
+        /**
+         * Called on the UI thread after a batch was applied, outside the lock.
+         * 'single' is the only change of the batch, or null when there were several.
+         */
+        void onMutationsApplied(int count, Mutation single);
+    }
+
+    private final Object lock;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private ArrayList<Mutation> pending = new ArrayList<>();
+    private ArrayList<Mutation> draining = new ArrayList<>();
+    private boolean scheduled = false;
+
+    /**
+     * @param lock guards the pages the listener changes, readers folding pending changes
+     *             take it too so they never see a half applied batch
+     */
+    public TiVerticalPagerMutationQueue(Object lock, Listener listener) {
+        this.lock = lock;
+        this.listener = listener;
+    }
+
+    public void enqueue(Mutation mutation) {
+        boolean schedule;
+        synchronized (lock) {
+            if (mutation.type == TYPE_SET) {
+                pending.clear();
+            }
+            pending.add(mutation);
+            schedule = !scheduled;
+            scheduled = true;
+        }
+
+        if (schedule) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                Choreographer.getInstance().postFrameCallback(this);
+            } else {
+                mainHandler.post(this);
+            }
+        }
+    }
+
+    /**
+     * Returns what the pages will be once the queued changes are applied, without applying them.
+     */
+    public TiVerticalPagerViewList fold(TiVerticalPagerViewList list) {
+        synchronized (lock) {
+            for (int i = 0; i < pending.size(); i++) {
+                list = pending.get(i).apply(list);
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Applies the queued changes now. Must be called on the UI thread.
+     */
+    public void drain() {
+        int count;
+        Mutation single;
+        synchronized (lock) {
+            scheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            ArrayList<Mutation> batch = pending;
+            pending = draining;
+            draining = batch;
+
+            count = batch.size();
+            single = count == 1 ? batch.get(0) : null;
+            for (int i = 0; i < count; i++) {
+                listener.applyMutation(batch.get(i));
+            }
+            batch.clear();
+        }
+
+        listener.onMutationsApplied(count, single);
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            pending.clear();
+        }
+    }
+
+    @Override
+    public void run() {
+        // Posted from another thread, wait for the next frame like changes queued on the UI thread
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        drain();
+    }
+}
@@ -0,0 +1,247 @@
+package ti.verticalpager;
+
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.view.SurfaceView;
+import android.view.TextureView;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import org.appcelerator.titanium.proxy.TiViewProxy;
+import org.appcelerator.titanium.util.TiConvert;
+import org.appcelerator.titanium.view.TiUIView;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the pages whose native view is realized, in least-recently-used order, together
+ * with an estimate of the memory each one holds.
+ *
+ * Pages are keyed by proxy rather than by position so that inserting or removing pages does
+ * not mix up entries. The cost of a page is the 'cacheCost' property of its proxy when JS
+ * sets one, otherwise it is measured from the bitmaps and surfaces in its view tree. Measuring
+ * walks the whole tree, so it is deferred until a trim needs the costs: pages are only marked
+ * stale when they are realized or used, and pagers without a budget never measure at all.
+ */
+public class TiVerticalPagerPageCache {
+
+    // Floor for pages without bitmaps or surfaces, covers the view objects themselves
+    private static final long MIN_PAGE_COST = 64 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    public interface Evictor {
+        void evict(TiViewProxy page);
+    }
+
+    private static class Entry {
+        long cost;
+        boolean stale = true; // Cost needs measuring before the next trim
+        int position = -1; // Last known position, -1 once the page left the list
+    }
+
+    // Insertion ordered, pages are moved to the end when used, so lookups keep the order
+    private final LinkedHashMap<TiViewProxy, Entry> entries = new LinkedHashMap<>();
+    private long totalCost = 0;
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Total cost as of the last trim, pages realized or used since then are not included.
+     */
+    public long getTotalCost() {
+        return totalCost;
+    }
+
+    /**
+     * Records that a page has a native view and marks it as most recently used.
+     */
+    public void recordRealized(TiViewProxy page, int position) {
+        if (page == null) {
+            return;
+        }
+
+        Entry entry = entries.remove(page);
+        if (entry == null) {
+            entry = new Entry();
+        }
+        entries.put(page, entry);
+        entry.position = position;
+        entry.stale = true;
+    }
+
+    /**
+     * Refreshes the known positions after the page list changed.
+     */
+    public void updatePositions(List<TiViewProxy> pages) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        for (Entry entry : entries.values()) {
+            entry.position = -1;
+        }
+        for (int i = 0; i < pages.size(); i++) {
+            Entry entry = entries.get(pages.get(i));
+            if (entry != null) {
+                entry.position = i;
+            }
+        }
+    }
+
+    /**
+     * Marks a page as most recently used. It is measured again at the next trim, its images
+     * may have loaded since it was realized.
+     */
+    public void touch(TiViewProxy page) {
+        Entry entry = page != null ? entries.remove(page) : null;
+        if (entry != null) {
+            entries.put(page, entry);
+            entry.stale = true;
+        }
+    }
+
+    public void remove(TiViewProxy page) {
+        Entry entry = page != null ? entries.remove(page) : null;
+        if (entry != null) {
+            totalCost -= entry.cost;
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        totalCost = 0;
+    }
+
+    /**
+     * Evicts least recently used pages until the total cost fits the budget.
+     * Pages that are attached to the window, the current one and its bound neighbours,
+     * are never evicted. Pages that left the pager or lost their view are dropped without
+     * calling the evictor.
+     */
+    public int trimToBudget(long budgetBytes, TiViewProxy owner, Evictor evictor) {
+        for (Map.Entry<TiViewProxy, Entry> item : entries.entrySet()) {
+            Entry entry = item.getValue();
+            if (entry.stale) {
+                updateCost(item.getKey(), entry);
+            }
+        }
+
+        int evicted = 0;
+        Iterator<Map.Entry<TiViewProxy, Entry>> iterator = entries.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<TiViewProxy, Entry> item = iterator.next();
+            TiViewProxy page = item.getKey();
+            TiUIView pageView = page.peekView();
+
+            if (page.getParent() != owner || pageView == null) {
+                totalCost -= item.getValue().cost;
+                iterator.remove();
+                continue;
+            }
+
+            if (totalCost <= budgetBytes) {
+                continue;
+            }
+
+            View nativeView = pageView.getNativeView();
+            if (nativeView != null && nativeView.isAttachedToWindow()) {
+                continue;
+            }
+
+            totalCost -= item.getValue().cost;
+            iterator.remove();
+            evictor.evict(page);
+            evicted++;
+        }
+
+        return evicted;
+    }
+
+    /**
+     * Evicts every page whose last known position is outside first..last.
+     * With keepAttached, pages attached to the window are kept wherever they are.
+     */
+    public int evictOutside(int first, int last, TiViewProxy owner, boolean keepAttached, Evictor evictor) {
+        int evicted = 0;
+        Iterator<Map.Entry<TiViewProxy, Entry>> iterator = entries.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<TiViewProxy, Entry> item = iterator.next();
+            TiViewProxy page = item.getKey();
+            TiUIView pageView = page.peekView();
+            int position = item.getValue().position;
+
+            if (page.getParent() != owner || pageView == null) {
+                totalCost -= item.getValue().cost;
+                iterator.remove();
+                continue;
+            }
+
+            if (position >= first && position <= last) {
+                continue;
+            }
+
+            View nativeView = pageView.getNativeView();
+            if (keepAttached && nativeView != null && nativeView.isAttachedToWindow()) {
+                continue;
+            }
+
+            totalCost -= item.getValue().cost;
+            iterator.remove();
+            evictor.evict(page);
+            evicted++;
+        }
+
+        return evicted;
+    }
+
+    private void updateCost(TiViewProxy page, Entry entry) {
+        long cost = estimateCost(page);
+        totalCost += cost - entry.cost;
+        entry.cost = cost;
+        entry.stale = false;
+    }
+
+    static long estimateCost(TiViewProxy page) {
+        if (page.hasProperty("cacheCost")) {
+            return Math.max(0, (long) TiConvert.toDouble(page.getProperty("cacheCost"), 0));
+        }
+
+        TiUIView pageView = page.peekView();
+        View nativeView = pageView != null ? pageView.getNativeView() : null;
+        return MIN_PAGE_COST + (nativeView != null ? measureView(nativeView) : 0);
+    }
+
+    private static long measureView(View view) {
+        long cost = 0;
+
+        if (view instanceof ImageView) {
+            Drawable drawable = ((ImageView) view).getDrawable();
+            if (drawable instanceof BitmapDrawable) {
+                Bitmap bitmap = ((BitmapDrawable) drawable).getBitmap();
+                if (bitmap != null && !bitmap.isRecycled()) {
+                    cost += bitmap.getAllocationByteCount();
+                }
+            }
+        } else if (view instanceof SurfaceView || view instanceof TextureView) {
+            cost += (long) view.getWidth() * view.getHeight() * BYTES_PER_PIXEL;
+        }
+
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                cost += measureView(group.getChildAt(i));
+            }
+        }
+
+        return cost;
+    }
+}
@@ -0,0 +1,231 @@
+package ti.verticalpager;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.viewpager2.widget.CompositePageTransformer;
+import androidx.viewpager2.widget.MarginPageTransformer;
+import androidx.viewpager2.widget.ViewPager2;
+
+import org.appcelerator.kroll.KrollDict;
+import org.appcelerator.titanium.util.TiConvert;
+
+import java.util.HashMap;
+
+/**
+ * Built-in page transitions for the vertical pager.
+ *
+ * All presets only touch translation, scale, alpha and translationZ, which are applied on the
+ * RenderThread without invalidating layout, and none of them allocate in transformPage.
+ * 'position' is the page offset from the center: 0 is the current page, -1 the page above
+ * and 1 the page below.
+ */
+public final class TiVerticalPagerPageTransformers {
+
+    public static final int TYPE_NONE = 0;
+    public static final int TYPE_DEPTH = 1;
+    public static final int TYPE_ZOOM_OUT = 2;
+    public static final int TYPE_PARALLAX = 3;
+    public static final int TYPE_STACK = 4;
+
+    private TiVerticalPagerPageTransformers() {
+    }
+
+    /**
+     * Builds a transformer from a preset constant, a { type, factor, margin } object or an
+     * array of either, which is chained in order. Margins are given in dp and added up. Presets
+     * set the translation of a page absolutely, so the margin is applied after them as an
+     * offset on top of their translation.
+     * Returns null when no transformer is configured.
+     */
+    @SuppressWarnings("unchecked")
+    public static ViewPager2.PageTransformer fromConfig(Object config, float density) {
+        if (config == null) {
+            return null;
+        }
+
+        Object[] configs = config instanceof Object[] ? (Object[]) config : new Object[] { config };
+        CompositePageTransformer composite = new CompositePageTransformer();
+        boolean hasPreset = false;
+        float marginDp = 0f;
+
+        for (Object item : configs) {
+            int type;
+            KrollDict options;
+
+            if (item instanceof HashMap) {
+                options = new KrollDict((HashMap<String, Object>) item);
+                type = TiConvert.toInt(options.get("type"), TYPE_NONE);
+            } else {
+                options = new KrollDict();
+                type = TiConvert.toInt(item, TYPE_NONE);
+            }
+
+            marginDp += Math.max(0f, TiConvert.toFloat(options.get("margin"), 0f));
+
+            ViewPager2.PageTransformer preset = createPreset(type, options);
+            if (preset != null) {
+                composite.addTransformer(preset);
+                hasPreset = true;
+            }
+        }
+
+        int margin = Math.round(marginDp * density);
+        if (margin > 0) {
+            composite.addTransformer(hasPreset ? new MarginOffsetTransformer(margin) : new MarginPageTransformer(margin));
+        }
+
+        return hasPreset || margin > 0 ? composite : null;
+    }
+
+    private static ViewPager2.PageTransformer createPreset(int type, KrollDict options) {
+        switch (type) {
+            case TYPE_DEPTH:
+                return new DepthTransformer(TiConvert.toFloat(options.get("minScale"), 0.75f));
+            case TYPE_ZOOM_OUT:
+                return new ZoomOutTransformer(TiConvert.toFloat(options.get("minScale"), 0.85f),
+                        TiConvert.toFloat(options.get("minAlpha"), 0.5f));
+            case TYPE_PARALLAX:
+                return new ParallaxTransformer(TiConvert.toFloat(options.get("factor"), 0.5f));
+            case TYPE_STACK:
+                return new StackTransformer(TiConvert.toFloat(options.get("scaleStep"), 0.08f));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Restores the properties a transformer may have changed.
+     */
+    public static void resetPage(@NonNull View page) {
+        page.setAlpha(1f);
+        page.setTranslationY(0f);
+        page.setTranslationZ(0f);
+        page.setScaleX(1f);
+        page.setScaleY(1f);
+    }
+
+    /**
+     * Gap between pages on top of a preset. It runs after the preset and adds to the
+     * translation the preset just set, where MarginPageTransformer would overwrite it.
+     */
+    static final class MarginOffsetTransformer implements ViewPager2.PageTransformer {
+        private final int margin;
+
+        MarginOffsetTransformer(int margin) {
+            this.margin = margin;
+        }
+
+        @Override
+        public void transformPage(@NonNull View page, float position) {
+            page.setTranslationY(page.getTranslationY() + margin * position);
+        }
+    }
+
+    /**
+     * The current page slides up normally while the next one fades in from below it.
+     */
+    static final class DepthTransformer implements ViewPager2.PageTransformer {
+        private final float minScale;
+
+        DepthTransformer(float minScale) {
+            this.minScale = minScale;
+        }
+
+        @Override
+        public void transformPage(@NonNull View page, float position) {
+            if (position <= 0f || position >= 1f) {
+                resetPage(page);
+                page.setAlpha(position <= -1f || position >= 1f ? 0f : 1f);
+                return;
+            }
+
+            float scale = minScale + (1f - minScale) * (1f - position);
+            page.setAlpha(1f - position);
+            // Counteract the default slide so the page stays behind the current one
+            page.setTranslationY(page.getHeight() * -position);
+            page.setTranslationZ(-position);
+            page.setScaleX(scale);
+            page.setScaleY(scale);
+        }
+    }
+
+    /**
+     * Pages shrink and fade while they move away from the center.
+     */
+    static final class ZoomOutTransformer implements ViewPager2.PageTransformer {
+        private final float minScale;
+        private final float minAlpha;
+
+        ZoomOutTransformer(float minScale, float minAlpha) {
+            this.minScale = minScale;
+            this.minAlpha = minAlpha;
+        }
+
+        @Override
+        public void transformPage(@NonNull View page, float position) {
+            if (position <= -1f || position >= 1f) {
+                resetPage(page);
+                page.setAlpha(0f);
+                return;
+            }
+
+            float distance = position < 0f ? -position : position;
+            float scale = Math.max(minScale, 1f - distance);
+            float margin = page.getHeight() * (1f - scale) / 2f;
+
+            page.setTranslationY(position < 0f ? margin : -margin);
+            page.setScaleX(scale);
+            page.setScaleY(scale);
+            page.setAlpha(minAlpha + (scale - minScale) / (1f - minScale) * (1f - minAlpha));
+        }
+    }
+
+    /**
+     * Pages move slower than the finger, factor 0 is a normal slide and 1 keeps them still.
+     */
+    static final class ParallaxTransformer implements ViewPager2.PageTransformer {
+        private final float factor;
+
+        ParallaxTransformer(float factor) {
+            this.factor = Math.max(0f, Math.min(1f, factor));
+        }
+
+        @Override
+        public void transformPage(@NonNull View page, float position) {
+            if (position <= -1f || position >= 1f) {
+                page.setTranslationY(0f);
+                return;
+            }
+
+            page.setTranslationY(-position * page.getHeight() * factor);
+        }
+    }
+
+    /**
+     * The next pages wait stacked under the current one, slightly scaled down, and the
+     * current page slides away on top of them.
+     */
+    static final class StackTransformer implements ViewPager2.PageTransformer {
+        private final float scaleStep;
+
+        StackTransformer(float scaleStep) {
+            this.scaleStep = scaleStep;
+        }
+
+        @Override
+        public void transformPage(@NonNull View page, float position) {
+            if (position <= 0f) {
+                resetPage(page);
+                return;
+            }
+
+            float scale = Math.max(0f, 1f - scaleStep * position);
+            page.setTranslationY(page.getHeight() * -position);
+            page.setTranslationZ(-position);
+            page.setScaleX(scale);
+            page.setScaleY(scale);
+            page.setAlpha(position >= 2f ? 0f : 1f);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ti.verticalpager;
+
+/**
+ * Sizes the pre-loading window from how fast the user moves through the feed.
+ *
+ * Two signals are tracked: the peak scroll velocity of the last gesture (in pages per
+ * second, measured from onPageScrolled) and a running average of how long the user stays
+ * on a page. Each is mapped linearly onto the range between min and max: a gentle swipe stays
+ * near min, an ordinary swipe lands around the middle and only hard flings or rapid page
+ * turns reach max. A user who lingers on pages shrinks the window back to min.
+ */
+public class TiVerticalPagerPrefetchPredictor {
+
+    // Average dwell time above which the user is considered to be lingering
+    private static final long LINGER_DWELL_MS = 4000;
+    // Weight of the newest sample in the running averages
+    private static final float SMOOTHING = 0.3f;
+
+    // Peak velocities of a single-page swipe, in pages per second. A slow drag peaks below
+    // 2, an ordinary swipe settles in about 250ms and peaks around 6, a hard fling around 12.
+    private static final float SLOW_VELOCITY = 2f;
+    private static final float FAST_VELOCITY = 12f;
+
+    // Page turn rates from the average dwell time, in pages per second. One page every two
+    // seconds is slow browsing, three per second is skimming.
+    private static final float SLOW_TURN_RATE = 0.5f;
+    private static final float FAST_TURN_RATE = 3f;
+
+    private int minWindow = 1;
+    private int maxWindow = 5;
+    private float velocityScale = 1f;
+
+    private float lastPosition = -1f;
+    private long lastScrollTime = 0;
+    private float smoothedVelocity = 0f;
+    private float peakVelocity = 0f;
+
+    private long lastSettleTime = 0;
+    private float averageDwell = 0f;
+
+    public void setPolicy(int min, int max, float velocityScale) {
+        this.minWindow = Math.max(1, min);
+        this.maxWindow = Math.max(this.minWindow, max);
+        this.velocityScale = Math.max(0f, velocityScale);
+    }
+
+    public void onGestureStart() {
+        peakVelocity = 0f;
+        smoothedVelocity = 0f;
+        lastPosition = -1f;
+    }
+
+    public void onScrolled(int position, float positionOffset, long timeMs) {
+        float current = position + positionOffset;
+
+        if (lastPosition >= 0f && timeMs > lastScrollTime) {
+            float velocity = (current - lastPosition) * 1000f / (timeMs - lastScrollTime);
+            if (velocity < 0f) {
+                velocity = -velocity;
+            }
+            smoothedVelocity += (velocity - smoothedVelocity) * SMOOTHING;
+            if (smoothedVelocity > peakVelocity) {
+                peakVelocity = smoothedVelocity;
+            }
+        }
+
+        lastPosition = current;
+        lastScrollTime = timeMs;
+    }
+
+    public void onPageSettled(long timeMs) {
+        if (lastSettleTime > 0) {
+            long dwell = timeMs - lastSettleTime;
+            averageDwell = averageDwell == 0f ? dwell : averageDwell + (dwell - averageDwell) * SMOOTHING;
+        }
+        lastSettleTime = timeMs;
+    }
+
+    /**
+     * Number of pages to pre-load in the scroll direction.
+     */
+    public int getWindow() {
+        if (averageDwell > LINGER_DWELL_MS) {
+            return minWindow;
+        }
+
+        // 0 at min, 1 at max. Quick page turns count as speed even when each swipe is gentle.
+        float speed = ramp(peakVelocity, SLOW_VELOCITY, FAST_VELOCITY) * velocityScale;
+        if (averageDwell > 0f) {
+            speed = Math.max(speed, ramp(1000f / averageDwell, SLOW_TURN_RATE, FAST_TURN_RATE));
+        }
+
+        int window = minWindow + Math.round(Math.min(1f, speed) * (maxWindow - minWindow));
+        return Math.min(maxWindow, Math.max(minWindow, window));
+    }
+
+    private static float ramp(float value, float low, float high) {
+        return Math.max(0f, Math.min(1f, (value - low) / (high - low)));
+    }
+}
@@ -0,0 +1,208 @@
+package ti.verticalpager;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.Log;
+import android.view.Choreographer;
+
+import org.appcelerator.titanium.proxy.TiViewProxy;
+
+import java.util.List;
+
+/**
+ * Realizes the native views of pages near the current one while the UI thread is idle.
+ *
+ * Each frame the scheduler waits for the message queue to go idle and then creates pages
+ * until the frame budget is used up, so a run is spread over as many frames as it needs.
+ * Pages that already have a native view are skipped. A run is cancelled as soon as the
+ * user starts dragging or the page list changes.
+ */
+public class TiVerticalPagerPreloadScheduler implements Choreographer.FrameCallback, MessageQueue.IdleHandler {
+
+    private static final String TAG = "TiVerticalPagerPreload";
+
+    public static final int DEFAULT_START_DELAY = 100;
+    public static final int DEFAULT_FRAME_BUDGET = 8;
+
+    public interface Listener {
+        void onPagePreloaded(TiViewProxy page, int position);
+
+        void onPreloadFinished(int preloaded, int skipped, boolean cancelled);
+    }
+
+    private final TiVerticalPagerProxy pagerProxy;
+    private final Listener listener;
+
+    private int startDelay = DEFAULT_START_DELAY;
+    private long frameBudgetNanos = DEFAULT_FRAME_BUDGET * 1000000L;
+
+    private List<TiViewProxy> pages;
+    private int[] queue = new int[16];
+    private int queueHead = 0;
+    private int queueSize = 0;
+
+    private boolean running = false;
+    private boolean idleHandlerRegistered = false;
+    private int preloadedCount = 0;
+    private int skippedCount = 0;
+
+    public TiVerticalPagerPreloadScheduler(TiVerticalPagerProxy pagerProxy, Listener listener) {
+        this.pagerProxy = pagerProxy;
+        this.listener = listener;
+    }
+
+    public void setStartDelay(int delay) {
+        this.startDelay = Math.max(0, delay);
+    }
+
+    public void setFrameBudget(int budget) {
+        this.frameBudgetNanos = Math.max(1, budget) * 1000000L;
+    }
+
+    /**
+     * Starts a new run over pages start..end, nearest to centerPage first.
+     * A run that is still in progress is cancelled.
+     */
+    public void schedule(List<TiViewProxy> pages, int centerPage, int start, int end) {
+        cancel();
+
+        start = Math.max(0, start);
+        end = Math.min(pages.size() - 1, end);
+        if (start > end) {
+            return;
+        }
+
+        int count = end - start + 1;
+        if (queue.length < count) {
+            queue = new int[count];
+        }
+
+        queueHead = 0;
+        queueSize = 0;
+        int maxDistance = Math.max(Math.abs(centerPage - start), Math.abs(end - centerPage));
+        for (int distance = 0; distance <= maxDistance; distance++) {
+            int below = centerPage + distance;
+            if (below >= start && below <= end) {
+                queue[queueSize++] = below;
+            }
+            int above = centerPage - distance;
+            if (distance > 0 && above >= start && above <= end) {
+                queue[queueSize++] = above;
+            }
+        }
+
+        this.pages = pages;
+        preloadedCount = 0;
+        skippedCount = 0;
+        running = true;
+
+        Log.d(TAG, "Scheduled pre-loading of pages " + start + " to " + end);
+        Choreographer.getInstance().postFrameCallbackDelayed(this, startDelay);
+    }
+
+    public void cancel() {
+        if (!running) {
+            return;
+        }
+
+        Choreographer.getInstance().removeFrameCallback(this);
+        unregisterIdleHandler();
+        finish(true);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running || idleHandlerRegistered) {
+            return;
+        }
+
+        // Do the work after this frame is drawn, once the queue has nothing else to do
+        Looper.myQueue().addIdleHandler(this);
+        idleHandlerRegistered = true;
+    }
+
+    @Override
+    public boolean queueIdle() {
+        idleHandlerRegistered = false;
+        if (!running) {
+            return false;
+        }
+
+        long startTime = System.nanoTime();
+        boolean realizedAny = false;
+
+        while (queueHead < queueSize) {
+            if (realizedAny && System.nanoTime() - startTime >= frameBudgetNanos) {
+                break;
+            }
+
+            int position = queue[queueHead++];
+            if (preloadPage(position)) {
+                realizedAny = true;
+            }
+        }
+
+        if (queueHead < queueSize) {
+            Choreographer.getInstance().postFrameCallback(this);
+        } else {
+            finish(false);
+        }
+
+        return false;
+    }
+
+    private boolean preloadPage(int position) {
+        if (position < 0 || position >= pages.size()) {
+            skippedCount++;
+            return false;
+        }
+
+        TiViewProxy viewProxy = pages.get(position);
+        if (viewProxy == null || viewProxy.peekView() != null) {
+            skippedCount++;
+            return false;
+        }
+
+        try {
+            if (viewProxy.getParent() == null) {
+                viewProxy.setParent(pagerProxy);
+            }
+
+            long start = System.nanoTime();
+            viewProxy.getOrCreateView();
+            TiVerticalPagerMetrics metrics = pagerProxy.getPagerMetrics();
+            metrics.recordViewCreated(System.nanoTime() - start);
+            metrics.recordPageCreated(viewProxy, TiVerticalPagerMetrics.CREATED_BY_PRELOAD);
+            preloadedCount++;
+            if (listener != null) {
+                listener.onPagePreloaded(viewProxy, position);
+            }
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Error pre-loading view " + position + ": " + e.getMessage());
+            skippedCount++;
+            return false;
+        }
+    }
+
+    private void unregisterIdleHandler() {
+        if (idleHandlerRegistered) {
+            Looper.myQueue().removeIdleHandler(this);
+            idleHandlerRegistered = false;
+        }
+    }
+
+    private void finish(boolean cancelled) {
+        running = false;
+        pages = null;
+        queueHead = 0;
+        queueSize = 0;
+
+        Log.d(TAG, "Pre-loading " + (cancelled ? "cancelled" : "complete") + ": " + preloadedCount
+                + " pre-loaded, " + skippedCount + " skipped");
+
+        if (listener != null) {
+            listener.onPreloadFinished(preloadedCount, skippedCount, cancelled);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package ti.verticalpager;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
+import android.view.Choreographer;
 
 import org.appcelerator.kroll.KrollDict;
+import org.appcelerator.kroll.KrollFunction;
 import org.appcelerator.kroll.annotations.Kroll;
 import org.appcelerator.titanium.TiC;
 import org.appcelerator.titanium.proxy.TiViewProxy;
@@ -10,15 +14,90 @@ import org.appcelerator.titanium.util.TiConvert;
 import org.appcelerator.titanium.view.TiUIView;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 @Kroll.proxy(creatableInModule = TiVerticalPagerModule.class)
 public class TiVerticalPagerProxy extends TiViewProxy{
     private static final String TAG = "TiVerticalPagerProxy";
 
-    private final List<TiViewProxy> viewProxies = new ArrayList<>();
+    private static final String DIRECTION_UP = "up";
+    private static final String DIRECTION_DOWN = "down";
+    private static final String DIRECTION_NONE = "none";
+
+    // Largest page index or pixel offset boxed through the table below
+    private static final int MAX_BOXED_INT = 8192;
+
+    // Payload of the 'scroll' events fired synchronously. JS has copied the values by the time
+    // fireSyncEvent returns, so the next event can overwrite them.
+    private final KrollDict scrollEventData = new KrollDict();
+    private Integer[] boxedInts = new Integer[256];
+
+    // Published snapshot of the pages. Writers build a new version under the lock,
+    // readers take the current one without locking or copying.
+    private final Object viewProxiesLock = new Object();
+    private volatile TiVerticalPagerViewList viewProxies = TiVerticalPagerViewList.EMPTY;
+
+    // Incremental 'views' assignment: the array still being appended and how far it got
+    private int viewsChunkSize = 0; // 0 assigns 'views' at once
+    private Object[] ingestingViews;
+    private int ingestOffset = 0;
+    private int ingestSkipped = 0;
+    private boolean ingestScheduled = false;
+    private int viewsLoadedCount = -1; // pages to report in 'viewsloaded' once applied, -1 for none
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Choreographer.FrameCallback viewsIngestCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            ingestViewsChunk();
+        }
+    };
+
+    // Every change to the pages goes through this queue, it applies them on the UI thread
+    // once per frame so a loop of addView() calls reaches the adapter as one update
+    private final TiVerticalPagerMutationQueue mutationQueue = new TiVerticalPagerMutationQueue(viewProxiesLock,
+            new TiVerticalPagerMutationQueue.Listener() {
+                @Override
+                public void applyMutation(TiVerticalPagerMutationQueue.Mutation mutation) {
+                    applyViewMutation(mutation);
+                }
+
+                @Override
+                public void onMutationsApplied(int count, TiVerticalPagerMutationQueue.Mutation single) {
+                    onViewMutationsApplied(count, single);
+                }
+            });
     private int currentPage = 0;
+    private int initialPage = 0;
     private int cacheSize = 3;
+    private long cacheBudgetBytes = 0; // 0 disables the byte budget
+    private int releaseDistance = 0; // 0 keeps realized pages until they leave the list
+    private int scrollEventInterval = TiVerticalPagerScrollEventThrottle.INTERVAL_NONE;
+    private boolean useHardwareLayersWhileScrolling = false;
+    private boolean itemAnimations = false;
+    private TiVerticalPagerScrollLinkedAnimation[] scrollLinkedAnimations = new TiVerticalPagerScrollLinkedAnimation[0];
+
+    private final TiVerticalPagerMetrics metrics = new TiVerticalPagerMetrics();
+    private int metricsInterval = 0; // 0 disables the periodic 'metrics' event
+
+    // Data-source mode: pages are created on demand instead of being passed in 'views'
+    private KrollFunction createPageCallback;
+    private KrollFunction updatePageCallback;
+    private KrollFunction templateForPageCallback;
+    private int itemCount = 0;
+
+    private TiVerticalPagerRecycledViewPoolProxy recycledViewPool;
+
+    private int preloadDelay = TiVerticalPagerPreloadScheduler.DEFAULT_START_DELAY;
+    private int preloadFrameBudget = TiVerticalPagerPreloadScheduler.DEFAULT_FRAME_BUDGET;
+
+    // Pre-loading window, -1 means derived from cacheSize
+    private int prefetchMin = 1;
+    private int prefetchMax = -1;
+    private float prefetchVelocityScale = 1f;
 
     public TiVerticalPagerProxy() {
         super();
@@ -30,11 +109,28 @@ public class TiVerticalPagerProxy extends TiViewProxy{
 
         Log.d(TAG, "handleCreationDict called with options: " + options);
 
-        // Process views
-        if (options.containsKey("views")) {
-            Log.d(TAG, "Found 'views' in creation dict");
-            Object viewsObj = options.get("views");
-            setViews(viewsObj);
+        // Process data source callbacks
+        if (options.containsKey("createPage")) {
+            Log.d(TAG, "Found 'createPage' in creation dict");
+            Object callback = options.get("createPage");
+            setCreatePage(callback instanceof KrollFunction ? (KrollFunction) callback : null);
+        }
+
+        if (options.containsKey("updatePage")) {
+            Log.d(TAG, "Found 'updatePage' in creation dict");
+            Object callback = options.get("updatePage");
+            setUpdatePage(callback instanceof KrollFunction ? (KrollFunction) callback : null);
+        }
+
+        if (options.containsKey("templateForPage")) {
+            Log.d(TAG, "Found 'templateForPage' in creation dict");
+            Object callback = options.get("templateForPage");
+            setTemplateForPage(callback instanceof KrollFunction ? (KrollFunction) callback : null);
+        }
+
+        if (options.containsKey("itemCount")) {
+            Log.d(TAG, "Found 'itemCount' in creation dict");
+            setItemCount(TiConvert.toInt(options.get("itemCount"), 0));
         }
 
         // Process cacheSize
@@ -44,6 +140,65 @@ public class TiVerticalPagerProxy extends TiViewProxy{
             setCacheSize(size);
         }
 
+        // Process pre-loading settings
+        if (options.containsKey("preloadDelay")) {
+            setPreloadDelay(TiConvert.toInt(options.get("preloadDelay"), preloadDelay));
+        }
+
+        if (options.containsKey("preloadFrameBudget")) {
+            setPreloadFrameBudget(TiConvert.toInt(options.get("preloadFrameBudget"), preloadFrameBudget));
+        }
+
+        if (options.containsKey("prefetchPolicy")) {
+            setPrefetchPolicy(options.get("prefetchPolicy"));
+        }
+
+        // Process recycledViewPool
+        if (options.containsKey("recycledViewPool")) {
+            Log.d(TAG, "Found 'recycledViewPool' in creation dict");
+            setRecycledViewPool(options.get("recycledViewPool"));
+        }
+
+        if (options.containsKey("cacheBudgetBytes")) {
+            Log.d(TAG, "Found 'cacheBudgetBytes' in creation dict");
+            setCacheBudgetBytes(options.get("cacheBudgetBytes"));
+        }
+
+        if (options.containsKey("releaseDistance")) {
+            Log.d(TAG, "Found 'releaseDistance' in creation dict");
+            setReleaseDistance(TiConvert.toInt(options.get("releaseDistance"), 0));
+        }
+
+        if (options.containsKey("scrollEventInterval")) {
+            Log.d(TAG, "Found 'scrollEventInterval' in creation dict");
+            setScrollEventInterval(options.get("scrollEventInterval"));
+        }
+
+        if (options.containsKey("scrollLinkedAnimations")) {
+            Log.d(TAG, "Found 'scrollLinkedAnimations' in creation dict");
+            setScrollLinkedAnimations(options.get("scrollLinkedAnimations"));
+        }
+
+        if (options.containsKey("pageTransformer")) {
+            Log.d(TAG, "Found 'pageTransformer' in creation dict");
+            setPageTransformer(options.get("pageTransformer"));
+        }
+
+        if (options.containsKey("metricsInterval")) {
+            Log.d(TAG, "Found 'metricsInterval' in creation dict");
+            setMetricsInterval(TiConvert.toInt(options.get("metricsInterval"), 0));
+        }
+
+        if (options.containsKey("itemAnimations")) {
+            Log.d(TAG, "Found 'itemAnimations' in creation dict");
+            setItemAnimations(TiConvert.toBoolean(options.get("itemAnimations"), false));
+        }
+
+        if (options.containsKey("useHardwareLayersWhileScrolling")) {
+            Log.d(TAG, "Found 'useHardwareLayersWhileScrolling' in creation dict");
+            setUseHardwareLayersWhileScrolling(TiConvert.toBoolean(options.get("useHardwareLayersWhileScrolling"), false));
+        }
+
         // Process pageIndicator
         if (options.containsKey("pageIndicator")) {
             Log.d(TAG, "Found 'pageIndicator' in creation dict");
@@ -64,6 +219,23 @@ public class TiVerticalPagerProxy extends TiViewProxy{
             String color = TiConvert.toString(options.get("currentPageIndicatorColor"));
             setCurrentPageIndicatorColor(color);
         }
+
+        if (options.containsKey("initialPage")) {
+            Log.d(TAG, "Found 'initialPage' in creation dict");
+            setInitialPage(TiConvert.toInt(options.get("initialPage"), 0));
+        }
+
+        if (options.containsKey("viewsChunkSize")) {
+            Log.d(TAG, "Found 'viewsChunkSize' in creation dict");
+            setViewsChunkSize(TiConvert.toInt(options.get("viewsChunkSize"), 0));
+        }
+
+        // Process views last, how they are ingested depends on cacheSize and viewsChunkSize
+        if (options.containsKey("views")) {
+            Log.d(TAG, "Found 'views' in creation dict");
+            Object viewsObj = options.get("views");
+            setViews(viewsObj);
+        }
     }
 
     @Override
@@ -83,6 +255,19 @@ public class TiVerticalPagerProxy extends TiViewProxy{
 
         Log.d(TAG, "Views type: " + views.getClass().getName());
 
+        Object[] viewArray = toObjectArray(views);
+        if (viewArray == null) {
+            return;
+        }
+
+        setViewsArray(viewArray);
+    }
+
+    private Object[] toObjectArray(Object views) {
+        if (views == null) {
+            return null;
+        }
+
         Object[] viewArray = null;
 
         // Tenta converter para array
@@ -100,71 +285,202 @@ public class TiVerticalPagerProxy extends TiViewProxy{
                 Log.d(TAG, "Converted native array, length: " + length);
             } else {
                 Log.w(TAG, "Views is not an array: " + views.getClass().getName());
-                return;
             }
         } catch (Exception e) {
             Log.e(TAG, "Error processing views: " + e.getMessage(), e);
-            return;
+            return null;
         }
 
-        setViewsArray(viewArray);
+        return viewArray;
     }
 
-    private void setViewsArray(Object[] views) {
-        Log.d(TAG, "setViewsArray called with " + (views != null ? views.length : 0) + " views");
+    private List<TiViewProxy> toViewProxyList(Object views) {
+        List<TiViewProxy> proxies = new ArrayList<>();
+        Object[] viewArray = toObjectArray(views);
 
-        synchronized (viewProxies) {
-            // Remove parent das views antigas
-            for (TiViewProxy proxy : viewProxies) {
-                if (proxy.getParent() == this) {
-                    proxy.setParent(null);
+        if (viewArray != null) {
+            for (Object obj : viewArray) {
+                if (obj instanceof TiViewProxy) {
+                    proxies.add((TiViewProxy) obj);
+                } else {
+                    Log.w(TAG, "Object is not TiViewProxy: " + (obj != null ? obj.getClass().getName() : "null"));
                 }
             }
+        }
 
-            viewProxies.clear();
-
-            if (views != null) {
-                for (int i = 0; i < views.length; i++) {
-                    Object obj = views[i];
-                    Log.d(TAG, "Processing view " + i + ": " + (obj != null ? obj.getClass().getName() : "null"));
-
-                    if (obj instanceof TiViewProxy) {
-                        viewProxies.add((TiViewProxy) obj);
-                        Log.d(TAG, "Added TiViewProxy");
-                    } else {
-                        Log.w(TAG, "Object is not TiViewProxy: " + (obj != null ? obj.getClass().getName() : "null"));
-                    }
-                }
-            }
+        return proxies;
+    }
 
-            Log.d(TAG, "Total views in proxy: " + viewProxies.size());
+    private void detachViewProxy(TiViewProxy proxy) {
+        if (proxy != null && proxy.getParent() == this) {
+            proxy.setParent(null);
         }
+    }
 
+    private void notifyViewsChanged() {
         TiVerticalPagerView view = (TiVerticalPagerView) peekView();
         if (view != null) {
-            Log.d(TAG, "View exists, calling reloadData()");
             view.reloadData();
+        }
+    }
+
+    private void setViewsArray(Object[] views) {
+        int total = views != null ? views.length : 0;
+        Log.d(TAG, "setViewsArray called with " + total + " views");
+
+        // In incremental mode only the pages up to the first window are set now, the rest
+        // follows in chunks on the next frames
+        int window = Math.max(1, cacheSize);
+        int immediate = viewsChunkSize > 0 ? Math.min(total, initialPage + window + 1) : total;
+        List<TiViewProxy> pages = new ArrayList<>(immediate);
+        int skipped = collectViewProxies(views, 0, immediate, pages);
+        boolean incremental = immediate < total;
+
+        synchronized (viewProxiesLock) {
+            ingestingViews = incremental ? views : null;
+            ingestOffset = immediate;
+            ingestSkipped = skipped;
+            viewsLoadedCount = incremental ? -1 : pages.size();
+
+            // The old pages lose their parent when the change is applied
+            mutationQueue.enqueue(new TiVerticalPagerMutationQueue.Mutation(
+                    TiVerticalPagerMutationQueue.TYPE_SET, 0, 0, pages));
+        }
+
+        if (skipped > 0) {
+            Log.w(TAG, skipped + " entries of 'views' are not views and were skipped");
+        }
+        if (incremental) {
+            scheduleViewsIngestion();
+        }
+    }
+
+    /**
+     * Adds the view proxies in views[from, to) to the list and returns how many entries were
+     * something else. No logging per entry, feeds can pass thousands of views.
+     */
+    private static int collectViewProxies(Object[] views, int from, int to, List<TiViewProxy> out) {
+        int skipped = 0;
+        for (int i = from; i < to; i++) {
+            Object obj = views[i];
+            if (obj instanceof TiViewProxy) {
+                out.add((TiViewProxy) obj);
+            } else {
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    private void scheduleViewsIngestion() {
+        synchronized (viewProxiesLock) {
+            if (ingestScheduled) {
+                return;
+            }
+            ingestScheduled = true;
+        }
+
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Choreographer.getInstance().postFrameCallback(viewsIngestCallback);
         } else {
-            Log.d(TAG, "View doesn't exist yet");
+            mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(viewsIngestCallback));
         }
     }
 
-    private String getScrollDirectionString() {
-        TiVerticalPagerView view = (TiVerticalPagerView) peekView();
-        if (view != null) {
-            int direction = view.getScrollDirection();
-            if (direction > 0) {
-                return "down";
-            } else if (direction < 0) {
-                return "up";
+    /**
+     * Appends the next chunk of an incremental 'views' assignment, one chunk per frame.
+     */
+    private void ingestViewsChunk() {
+        boolean done;
+        int loaded = -1;
+        synchronized (viewProxiesLock) {
+            ingestScheduled = false;
+            Object[] views = ingestingViews;
+            if (views == null) {
+                return;
+            }
+
+            int end = Math.min(views.length, ingestOffset + Math.max(1, viewsChunkSize));
+            List<TiViewProxy> chunk = new ArrayList<>(end - ingestOffset);
+            ingestSkipped += collectViewProxies(views, ingestOffset, end, chunk);
+            ingestOffset = end;
+            done = end >= views.length;
+
+            if (done) {
+                ingestingViews = null;
+                if (ingestSkipped > 0) {
+                    Log.w(TAG, ingestSkipped + " entries of 'views' are not views and were skipped");
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                if (done) {
+                    // 'viewsloaded' fires once the last chunk reached the adapter
+                    viewsLoadedCount = views.length - ingestSkipped;
+                }
+                mutationQueue.enqueue(new TiVerticalPagerMutationQueue.Mutation(
+                        TiVerticalPagerMutationQueue.TYPE_INSERT, Integer.MAX_VALUE, 0, chunk));
+            } else if (done) {
+                loaded = views.length - ingestSkipped;
             }
         }
-        return "none";
+
+        if (loaded >= 0) {
+            fireViewsLoadedEvent(loaded);
+        }
+        if (!done) {
+            scheduleViewsIngestion();
+        }
+    }
+
+    /**
+     * Pages per frame when 'views' is assigned incrementally, 0 assigns them all at once.
+     */
+    @Kroll.setProperty
+    public void setViewsChunkSize(int chunkSize) {
+        this.viewsChunkSize = Math.max(0, chunkSize);
+    }
+
+    @Kroll.getProperty
+    public int getViewsChunkSize() {
+        return viewsChunkSize;
+    }
+
+    /**
+     * Boxes page indexes and pixel offsets through a table filled as values are seen. Offsets
+     * stay within the page height, so after the first gesture no new Integers are created.
+     * Values past MAX_BOXED_INT are boxed normally.
+     */
+    private Integer boxInt(int value) {
+        if (value < 0 || value >= MAX_BOXED_INT) {
+            return value;
+        }
+
+        if (value >= boxedInts.length) {
+            int length = Math.min(MAX_BOXED_INT, Math.max(value + 1, boxedInts.length * 2));
+            boxedInts = Arrays.copyOf(boxedInts, length);
+        }
+
+        Integer boxed = boxedInts[value];
+        if (boxed == null) {
+            boxed = value;
+            boxedInts[value] = boxed;
+        }
+        return boxed;
+    }
+
+    private static String directionName(int direction) {
+        if (direction > 0) {
+            return DIRECTION_DOWN;
+        } else if (direction < 0) {
+            return DIRECTION_UP;
+        }
+        return DIRECTION_NONE;
     }
 
     @Kroll.getProperty
     public Object[] getViews() {
-        return viewProxies.toArray();
+        return flushViewMutations().toArray();
     }
 
     @Kroll.setProperty
@@ -177,8 +493,284 @@ public class TiVerticalPagerProxy extends TiViewProxy{
         return cacheSize;
     }
 
+    @Kroll.setProperty
+    public void setCacheBudgetBytes(Object budget) {
+        this.cacheBudgetBytes = Math.max(0, (long) TiConvert.toDouble(budget, 0));
+    }
+
+    @Kroll.getProperty
+    public double getCacheBudgetBytes() {
+        return cacheBudgetBytes;
+    }
+
+    public long getCacheBudget() {
+        return cacheBudgetBytes;
+    }
+
+    @Kroll.setProperty
+    public void setScrollEventInterval(Object interval) {
+        if ("frame".equals(interval)) {
+            scrollEventInterval = TiVerticalPagerScrollEventThrottle.INTERVAL_FRAME;
+        } else {
+            scrollEventInterval = Math.max(0, TiConvert.toInt(interval, 0));
+        }
+    }
+
+    @Kroll.getProperty
+    public Object getScrollEventInterval() {
+        if (scrollEventInterval == TiVerticalPagerScrollEventThrottle.INTERVAL_FRAME) {
+            return "frame";
+        }
+        return scrollEventInterval;
+    }
+
+    public int getScrollEventIntervalMode() {
+        return scrollEventInterval;
+    }
+
+    @Kroll.setProperty
+    public void setScrollLinkedAnimations(Object animations) {
+        List<TiVerticalPagerScrollLinkedAnimation> parsed = new ArrayList<>();
+        Object[] configs = toObjectArray(animations);
+        float density = getActivity() != null ? getActivity().getResources().getDisplayMetrics().density : 1f;
+
+        if (configs != null) {
+            for (Object config : configs) {
+                TiVerticalPagerScrollLinkedAnimation animation = TiVerticalPagerScrollLinkedAnimation.fromConfig(config, density);
+                if (animation != null) {
+                    parsed.add(animation);
+                } else {
+                    Log.w(TAG, "Ignoring scroll linked animation without 'view' or 'keyframes'");
+                }
+            }
+        }
+
+        scrollLinkedAnimations = parsed.toArray(new TiVerticalPagerScrollLinkedAnimation[0]);
+
+        TiVerticalPagerView view = (TiVerticalPagerView) peekView();
+        if (view != null) {
+            view.applyScrollLinkedAnimations(currentPage, 0f);
+        }
+    }
+
+    public TiVerticalPagerScrollLinkedAnimation[] getScrollLinkedAnimations() {
+        return scrollLinkedAnimations;
+    }
+
+    @Kroll.setProperty
+    public void setUseHardwareLayersWhileScrolling(boolean enabled) {
+        this.useHardwareLayersWhileScrolling = enabled;
+    }
+
+    @Kroll.getProperty
+    public boolean getUseHardwareLayersWhileScrolling() {
+        return useHardwareLayersWhileScrolling;
+    }
+
+    @Kroll.setProperty
+    public void setItemAnimations(boolean enabled) {
+        this.itemAnimations = enabled;
+        TiVerticalPagerView view = (TiVerticalPagerView) peekView();
+        if (view != null) {
+            view.applyItemAnimator();
+        }
+    }
+
+    @Kroll.getProperty
+    public boolean getItemAnimations() {
+        return itemAnimations;
+    }
+
+    @Kroll.setProperty
+    public void setReleaseDistance(int distance) {
+        this.releaseDistance = Math.max(0, distance);
+    }
+
+    @Kroll.getProperty
+    public int getReleaseDistance() {
+        return releaseDistance;
+    }
+
+    @Kroll.setProperty
+    public void setPreloadDelay(int delay) {
+        this.preloadDelay = Math.max(0, delay);
+    }
+
+    @Kroll.getProperty
+    public int getPreloadDelay() {
+        return preloadDelay;
+    }
+
+    @Kroll.setProperty
+    public void setPreloadFrameBudget(int budget) {
+        this.preloadFrameBudget = Math.max(1, budget);
+    }
+
+    @Kroll.getProperty
+    public int getPreloadFrameBudget() {
+        return preloadFrameBudget;
+    }
+
+    @Kroll.setProperty
+    public void setPrefetchPolicy(Object policy) {
+        if (!(policy instanceof java.util.HashMap)) {
+            Log.w(TAG, "prefetchPolicy must be an object");
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        KrollDict policyDict = new KrollDict((java.util.HashMap<String, Object>) policy);
+
+        prefetchMin = Math.max(1, TiConvert.toInt(policyDict.get("min"), prefetchMin));
+        if (policyDict.containsKey("max")) {
+            prefetchMax = Math.max(prefetchMin, TiConvert.toInt(policyDict.get("max"), prefetchMin));
+        }
+        prefetchVelocityScale = Math.max(0f, TiConvert.toFloat(policyDict.get("velocityScale"), prefetchVelocityScale));
+    }
+
+    public int getPrefetchMin() {
+        return prefetchMin;
+    }
+
+    public int getPrefetchMax() {
+        return prefetchMax > 0 ? prefetchMax : cacheSize + 2;
+    }
+
+    public float getPrefetchVelocityScale() {
+        return prefetchVelocityScale;
+    }
+
+    @Kroll.setProperty
+    public void setItemCount(int count) {
+        this.itemCount = Math.max(0, count);
+        if (isDataSourceMode()) {
+            notifyViewsChanged();
+        }
+    }
+
+    @Kroll.getProperty
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    @Kroll.setProperty
+    public void setCreatePage(KrollFunction callback) {
+        boolean wasDataSourceMode = isDataSourceMode();
+        this.createPageCallback = callback;
+        if (wasDataSourceMode != isDataSourceMode()) {
+            notifyViewsChanged();
+        }
+    }
+
+    @Kroll.setProperty
+    public void setUpdatePage(KrollFunction callback) {
+        this.updatePageCallback = callback;
+    }
+
+    @Kroll.setProperty
+    public void setTemplateForPage(KrollFunction callback) {
+        this.templateForPageCallback = callback;
+
+        TiVerticalPagerView view = (TiVerticalPagerView) peekView();
+        if (view != null && isDataSourceMode()) {
+            view.invalidateTemplates();
+        }
+    }
+
+    public boolean hasPageTemplates() {
+        return templateForPageCallback != null;
+    }
+
+    /**
+     * Asks the data source which named template the page at the given index uses.
+     */
+    public String getTemplateId(int index) {
+        if (templateForPageCallback == null) {
+            return null;
+        }
+
+        Object result = templateForPageCallback.call(getKrollObject(), new Object[] { index });
+        return result != null ? TiConvert.toString(result) : null;
+    }
+
+    public boolean isDataSourceMode() {
+        return createPageCallback != null;
+    }
+
+    public boolean canUpdatePages() {
+        return updatePageCallback != null;
+    }
+
+    /**
+     * Number of pages the pager shows, either the 'itemCount' of the data source
+     * or the size of the 'views' list. Queued page changes are not included until they are
+     * applied at the next frame, so the count always matches what the adapter shows.
+     */
+    public int getPageCount() {
+        if (isDataSourceMode()) {
+            return itemCount;
+        }
+        return viewProxies.size();
+    }
+
+    /**
+     * Asks the data source to build the page view for the given index.
+     * Must be called on the runtime thread, the callback runs synchronously.
+     */
+    public TiViewProxy createPage(int index, String templateId) {
+        if (createPageCallback == null) {
+            return null;
+        }
+
+        Object result = createPageCallback.call(getKrollObject(), new Object[] { index, templateId });
+        if (result instanceof TiViewProxy) {
+            return (TiViewProxy) result;
+        }
+
+        Log.w(TAG, "createPage did not return a view for index " + index);
+        return null;
+    }
+
+    /**
+     * Asks the data source to rebind an existing page view to a new index.
+     * The page was created for the same template the index uses.
+     */
+    public void updatePage(TiViewProxy page, int index, String templateId) {
+        if (updatePageCallback != null) {
+            updatePageCallback.call(getKrollObject(), new Object[] { page, index, templateId });
+        }
+    }
+
+    /**
+     * Page the pager opens at. Only read when the native view is created, later changes
+     * have no effect, use scrollToPage() instead.
+     */
+    @Kroll.setProperty
+    public void setInitialPage(int page) {
+        this.initialPage = Math.max(0, page);
+    }
+
+    @Kroll.getProperty
+    public int getInitialPage() {
+        return initialPage;
+    }
+
+    /**
+     * Current page as JS sees it. Queued page changes are applied first so the index already
+     * accounts for them. Off the UI thread they cannot be applied yet and the index within the
+     * pages currently shown is returned.
+     */
     @Kroll.getProperty
     public int getCurrentPage() {
+        flushViewMutations();
+        return currentPage;
+    }
+
+    /**
+     * Index of the page currently shown, without applying queued changes. Used by the view,
+     * which has to agree with the adapter.
+     */
+    public int peekCurrentPage() {
         return currentPage;
     }
 
@@ -188,7 +780,8 @@ public class TiVerticalPagerProxy extends TiViewProxy{
 
     @Kroll.method
     public void scrollToPage(int page) {
-        if (page >= 0 && page < viewProxies.size()) {
+        flushViewMutations();
+        if (page >= 0 && page < getPageCount()) {
             currentPage = page;
             if (peekView() != null) {
                 ((TiVerticalPagerView) peekView()).scrollToPage(page, true);
@@ -198,29 +791,159 @@ public class TiVerticalPagerProxy extends TiViewProxy{
 
     @Kroll.method
     public void addView(TiViewProxy viewProxy) {
-        viewProxies.add(viewProxy);
-        if (peekView() != null) {
-            ((TiVerticalPagerView) peekView()).reloadData();
+        if (viewProxy != null) {
+            mutationQueue.enqueue(new TiVerticalPagerMutationQueue.Mutation(
+                    TiVerticalPagerMutationQueue.TYPE_INSERT, Integer.MAX_VALUE, 0, Collections.singletonList(viewProxy)));
         }
     }
 
     @Kroll.method
     public void removeView(int index) {
-        synchronized (viewProxies) {
-            if (index >= 0 && index < viewProxies.size()) {
-                TiViewProxy removedProxy = viewProxies.get(index);
-                if (removedProxy.getParent() == this) {
-                    removedProxy.setParent(null);
+        removeViews(index, 1);
+    }
+
+    @Kroll.method
+    public void insertViews(int index, Object views) {
+        List<TiViewProxy> inserted = toViewProxyList(views);
+        if (!inserted.isEmpty()) {
+            mutationQueue.enqueue(new TiVerticalPagerMutationQueue.Mutation(
+                    TiVerticalPagerMutationQueue.TYPE_INSERT, index, 0, inserted));
+        }
+    }
+
+    @Kroll.method
+    public void removeViews(int start, int count) {
+        mutationQueue.enqueue(new TiVerticalPagerMutationQueue.Mutation(
+                TiVerticalPagerMutationQueue.TYPE_REMOVE, start, count, null));
+    }
+
+    @Kroll.method
+    public void replaceViews(int start, Object views) {
+        List<TiViewProxy> replacements = toViewProxyList(views);
+        if (!replacements.isEmpty()) {
+            mutationQueue.enqueue(new TiVerticalPagerMutationQueue.Mutation(
+                    TiVerticalPagerMutationQueue.TYPE_REPLACE, start, 0, replacements));
+        }
+    }
+
+    @Kroll.method
+    public void moveView(int from, int to) {
+        mutationQueue.enqueue(new TiVerticalPagerMutationQueue.Mutation(
+                TiVerticalPagerMutationQueue.TYPE_MOVE, from, to, null));
+    }
+
+    /**
+     * Applies the queued page changes now when called on the UI thread and returns the pages.
+     * On other threads the changes stay queued and the returned snapshot already includes them.
+     */
+    public TiVerticalPagerViewList flushViewMutations() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            mutationQueue.drain();
+            return viewProxies;
+        }
+        return mutationQueue.fold(viewProxies);
+    }
+
+    /**
+     * Applies one queued change to the pages, keeping the current page on the same view.
+     * Runs on the UI thread while holding viewProxiesLock.
+     */
+    private void applyViewMutation(TiVerticalPagerMutationQueue.Mutation mutation) {
+        TiVerticalPagerViewList previous = viewProxies;
+        int size = previous.size();
+
+        switch (mutation.type) {
+            case TiVerticalPagerMutationQueue.TYPE_SET: {
+                // Pages that are also in the new list keep their parent, the adapter does not
+                // rebind unchanged pages and would never set it again
+                Set<TiViewProxy> kept = Collections.newSetFromMap(new IdentityHashMap<TiViewProxy, Boolean>());
+                kept.addAll(mutation.pages);
+                for (TiViewProxy proxy : previous) {
+                    if (!kept.contains(proxy)) {
+                        detachViewProxy(proxy);
+                    }
                 }
+                break;
+            }
 
-                viewProxies.remove(index);
+            case TiVerticalPagerMutationQueue.TYPE_INSERT: {
+                int position = Math.max(0, Math.min(mutation.index, size));
+                if (size > 0 && position <= currentPage) {
+                    currentPage += mutation.pages.size();
+                }
+                break;
             }
+
+            case TiVerticalPagerMutationQueue.TYPE_REMOVE: {
+                if (mutation.index < 0 || mutation.index >= size || mutation.count <= 0) {
+                    return;
+                }
+                int start = mutation.index;
+                int end = Math.min(size, start + mutation.count);
+                for (int i = start; i < end; i++) {
+                    detachViewProxy(previous.get(i));
+                }
+                if (currentPage >= end) {
+                    currentPage -= end - start;
+                } else if (currentPage >= start) {
+                    currentPage = Math.max(0, Math.min(start, size - (end - start) - 1));
+                }
+                break;
+            }
+
+            case TiVerticalPagerMutationQueue.TYPE_REPLACE: {
+                if (mutation.index < 0 || mutation.index > size) {
+                    return;
+                }
+                int start = mutation.index;
+                int end = Math.min(size, start + mutation.pages.size());
+                for (int position = start; position < end; position++) {
+                    if (previous.get(position) != mutation.pages.get(position - start)) {
+                        detachViewProxy(previous.get(position));
+                    }
+                }
+                break;
+            }
+
+            case TiVerticalPagerMutationQueue.TYPE_MOVE: {
+                int from = mutation.index;
+                int to = mutation.count;
+                if (from < 0 || from >= size || to < 0 || to >= size || from == to) {
+                    return;
+                }
+                if (currentPage == from) {
+                    currentPage = to;
+                } else if (from < currentPage && to >= currentPage) {
+                    currentPage--;
+                } else if (from > currentPage && to <= currentPage) {
+                    currentPage++;
+                }
+                break;
+            }
+        }
+
+        viewProxies = mutation.apply(previous);
+    }
+
+    private void onViewMutationsApplied(int count, TiVerticalPagerMutationQueue.Mutation single) {
+        int loaded;
+        synchronized (viewProxiesLock) {
+            loaded = viewsLoadedCount;
+            viewsLoadedCount = -1;
         }
 
         TiVerticalPagerView view = (TiVerticalPagerView) peekView();
         if (view != null) {
+            // The indicator can only animate a removal it can place, i.e. one that came alone
+            if (single != null && single.type == TiVerticalPagerMutationQueue.TYPE_REMOVE) {
+                view.onPagesRemoved(single.index, single.count);
+            }
             view.reloadData();
         }
+
+        if (loaded >= 0) {
+            fireViewsLoadedEvent(loaded);
+        }
     }
 
     @Kroll.method
@@ -231,6 +954,33 @@ public class TiVerticalPagerProxy extends TiViewProxy{
         }
     }
 
+    @Kroll.setProperty
+    public void setRecycledViewPool(Object pool) {
+        this.recycledViewPool = pool instanceof TiVerticalPagerRecycledViewPoolProxy
+                ? (TiVerticalPagerRecycledViewPoolProxy) pool
+                : null;
+
+        TiVerticalPagerView view = (TiVerticalPagerView) peekView();
+        if (view != null) {
+            view.setRecycledViewPool(recycledViewPool);
+        }
+    }
+
+    @Kroll.getProperty
+    public TiVerticalPagerRecycledViewPoolProxy getRecycledViewPool() {
+        return recycledViewPool;
+    }
+
+    @Kroll.setProperty
+    public void setPageTransformer(Object config) {
+        TiVerticalPagerView view = (TiVerticalPagerView) peekView();
+        if (view != null) {
+            view.setPageTransformer(config);
+        } else {
+            setProperty("pageTransformer", config);
+        }
+    }
+
     @Kroll.setProperty
     public void setPageIndicator(Object config) {
         Log.d(TAG, "setPageIndicator called on PROXY");
@@ -267,13 +1017,44 @@ public class TiVerticalPagerProxy extends TiViewProxy{
         }
     }
 
-    public List<TiViewProxy> getViewProxies() {
-        synchronized (viewProxies) {
-            return new ArrayList<>(viewProxies);
+    public TiVerticalPagerMetrics getPagerMetrics() {
+        return metrics;
+    }
+
+    @Kroll.method
+    public KrollDict getMetrics() {
+        TiVerticalPagerView view = (TiVerticalPagerView) peekView();
+        return metrics.toDict(view != null ? view.getRealizedPageCount() : 0);
+    }
+
+    @Kroll.method
+    public void resetMetrics() {
+        metrics.reset();
+    }
+
+    @Kroll.setProperty
+    public void setMetricsInterval(int interval) {
+        this.metricsInterval = Math.max(0, interval);
+        TiVerticalPagerView view = (TiVerticalPagerView) peekView();
+        if (view != null) {
+            view.scheduleMetricsEvent();
         }
     }
 
-    public void fireChangeEvent(int newPage, int oldPage, TiViewProxy currentView, TiViewProxy previousView) {
+    @Kroll.getProperty
+    public int getMetricsInterval() {
+        return metricsInterval;
+    }
+
+    /**
+     * Current snapshot of the pages. It never changes, so callers can keep it without copying.
+     */
+    public TiVerticalPagerViewList getViewProxies() {
+        return viewProxies;
+    }
+
+    public void fireChangeEvent(int newPage, int oldPage, TiViewProxy currentView, TiViewProxy previousView,
+                                boolean preloadHit, String createdBy, long timeToContent) {
         if (hasListeners(TiC.EVENT_CHANGE)) {
             KrollDict data = new KrollDict();
             data.put("currentPage", newPage);
@@ -282,26 +1063,69 @@ public class TiVerticalPagerProxy extends TiViewProxy{
             if (previousView != null) {
                 data.put("previousView", previousView);
             }
+            data.put("preloadHit", preloadHit);
+            data.put("createdBy", createdBy);
+            data.put("timeToContent", timeToContent);
+            metrics.onEventFired();
             fireEvent(TiC.EVENT_CHANGE, data);
         }
     }
 
-    public void fireScrollStartEvent() {
+    public void fireScrollStartEvent(int direction) {
         if (hasListeners("scrollstart")) {
             KrollDict data = new KrollDict();
             data.put("currentPage", currentPage);
-            data.put("direction", getScrollDirectionString());
+            data.put("direction", directionName(direction));
+            metrics.onEventFired();
             fireEvent("scrollstart", data);
         }
     }
 
-    public void fireScrollEvent(int currentPageEstimate, float offset) {
-        if (hasListeners("scroll")) {
+    /**
+     * @param posted true when called from the scroll throttle's own callback. The event is
+     *               then fired synchronously with a reused payload. Offsets flushed from inside
+     *               a pager callback are fired asynchronously with their own payload.
+     */
+    public void fireScrollEvent(int currentPageEstimate, int offset, int direction, boolean posted) {
+        if (!hasListeners("scroll")) {
+            return;
+        }
+
+        metrics.onEventFired();
+        if (posted) {
+            KrollDict data = scrollEventData;
+            data.put("currentPage", boxInt(currentPageEstimate));
+            data.put("offset", boxInt(offset));
+            data.put("direction", directionName(direction));
+            fireSyncEvent("scroll", data);
+            return;
+        }
+
+        KrollDict data = new KrollDict();
+        data.put("currentPage", currentPageEstimate);
+        data.put("offset", offset);
+        data.put("direction", directionName(direction));
+        fireEvent("scroll", data);
+    }
+
+    public void firePreloadEvent(int preloaded, int skipped, boolean cancelled) {
+        if (hasListeners("preload")) {
+            KrollDict data = new KrollDict();
+            data.put("preloaded", preloaded);
+            data.put("skipped", skipped);
+            data.put("cancelled", cancelled);
+            metrics.onEventFired();
+            fireEvent("preload", data);
+        }
+    }
+
+    public void fireMemoryWarningEvent(int evicted, int level) {
+        if (hasListeners("memorywarning")) {
             KrollDict data = new KrollDict();
-            data.put("currentPage", currentPageEstimate);
-            data.put("offset", offset);
-            data.put("direction", getScrollDirectionString());
-            fireEvent("scroll", data);
+            data.put("evicted", evicted);
+            data.put("level", level);
+            metrics.onEventFired();
+            fireEvent("memorywarning", data);
         }
     }
 
@@ -309,19 +1133,39 @@ public class TiVerticalPagerProxy extends TiViewProxy{
         if (hasListeners("scrollend")) {
             KrollDict data = new KrollDict();
             data.put("currentPage", currentPage);
+            metrics.onEventFired();
             fireEvent("scrollend", data);
         }
     }
 
+    public void fireViewsLoadedEvent(int count) {
+        if (hasListeners("viewsloaded")) {
+            metrics.onEventFired();
+            KrollDict data = new KrollDict();
+            data.put("count", count);
+            fireEvent("viewsloaded", data);
+        }
+    }
+
+    public void fireMetricsEvent() {
+        if (hasListeners("metrics")) {
+            TiVerticalPagerView view = (TiVerticalPagerView) peekView();
+            fireEvent("metrics", metrics.toDict(view != null ? view.getRealizedPageCount() : 0));
+        }
+    }
+
     @Override
     public void release() {
-        synchronized (viewProxies) {
+        mutationQueue.clear();
+        synchronized (viewProxiesLock) {
+            ingestingViews = null;
+            viewsLoadedCount = -1;
             for (TiViewProxy proxy : viewProxies) {
                 if (proxy.getParent() == this) {
                     proxy.setParent(null);
                 }
             }
-            viewProxies.clear();
+            viewProxies = TiVerticalPagerViewList.EMPTY;
         }
         super.release();
     }
@@ -0,0 +1,97 @@
+package ti.verticalpager;
+
+import android.content.Context;
+import android.util.SparseIntArray;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+
+/**
+ * Recycled view pool that releases the data source pages of the holders it throws away.
+ *
+ * RecyclerView's own pool drops holders silently, both when a view type is already full and
+ * when it is cleared. A data source page stays attached to its holder while pooled, so every
+ * dropped holder would keep a realized page and the Activity it was inflated with alive.
+ */
+public class TiVerticalPagerRecycledViewPool extends RecyclerView.RecycledViewPool {
+
+    // Same limit RecyclerView applies to view types without an explicit one
+    private static final int DEFAULT_MAX_SCRAP = 5;
+
+    // Limit of every view type seen so far, so clear() knows which types to walk
+    private final SparseIntArray typeLimits = new SparseIntArray();
+
+    @Override
+    public void setMaxRecycledViews(int viewType, int max) {
+        typeLimits.put(viewType, max);
+
+        // Shrinking a type drops its extra holders, release them before the pool does
+        while (getRecycledViewCount(viewType) > max) {
+            RecyclerView.ViewHolder holder = super.getRecycledView(viewType);
+            if (holder == null) {
+                break;
+            }
+            TiVerticalPagerAdapter.releaseDiscardedHolder(holder);
+        }
+        super.setMaxRecycledViews(viewType, max);
+    }
+
+    @Override
+    public void putRecycledView(RecyclerView.ViewHolder scrap) {
+        int viewType = scrap.getItemViewType();
+        int max = typeLimits.get(viewType, -1);
+        if (max < 0) {
+            max = DEFAULT_MAX_SCRAP;
+            typeLimits.put(viewType, max);
+        }
+
+        if (getRecycledViewCount(viewType) >= max) {
+            // The pool is full and would drop the holder
+            TiVerticalPagerAdapter.releaseDiscardedHolder(scrap);
+            return;
+        }
+        super.putRecycledView(scrap);
+    }
+
+    @Override
+    public void clear() {
+        releaseHolders();
+    }
+
+    /**
+     * Releases the pages of every pooled holder and empties the pool.
+     */
+    protected void releaseHolders() {
+        for (int i = 0; i < typeLimits.size(); i++) {
+            int viewType = typeLimits.keyAt(i);
+            RecyclerView.ViewHolder holder;
+            while ((holder = super.getRecycledView(viewType)) != null) {
+                TiVerticalPagerAdapter.releaseDiscardedHolder(holder);
+            }
+        }
+        super.clear();
+    }
+
+    /**
+     * Releases the pooled holders whose views were inflated with the given context and keeps
+     * the others.
+     */
+    protected void releaseHolders(Context context) {
+        ArrayList<RecyclerView.ViewHolder> kept = new ArrayList<>();
+        for (int i = 0; i < typeLimits.size(); i++) {
+            int viewType = typeLimits.keyAt(i);
+            RecyclerView.ViewHolder holder;
+            while ((holder = super.getRecycledView(viewType)) != null) {
+                if (holder.itemView.getContext() == context) {
+                    TiVerticalPagerAdapter.releaseDiscardedHolder(holder);
+                } else {
+                    kept.add(holder);
+                }
+            }
+        }
+        for (RecyclerView.ViewHolder holder : kept) {
+            super.putRecycledView(holder);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ti.verticalpager;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.SparseBooleanArray;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.appcelerator.kroll.KrollDict;
+import org.appcelerator.kroll.KrollProxy;
+import org.appcelerator.kroll.annotations.Kroll;
+import org.appcelerator.titanium.util.TiConvert;
+
+@Kroll.proxy(creatableInModule = TiVerticalPagerModule.class)
+public class TiVerticalPagerRecycledViewPoolProxy extends KrollProxy {
+    private static final String TAG = "TiVerticalPagerPool";
+
+    private static final int DEFAULT_MAX_PER_TYPE = 5;
+
+    private final SharedRecycledViewPool pool = new SharedRecycledViewPool();
+
+    public TiVerticalPagerRecycledViewPoolProxy() {
+        super();
+    }
+
+    @Override
+    public void handleCreationDict(KrollDict options) {
+        super.handleCreationDict(options);
+
+        if (options.containsKey("maxPerType")) {
+            setMaxPerType(TiConvert.toInt(options.get("maxPerType"), DEFAULT_MAX_PER_TYPE));
+        }
+    }
+
+    @Kroll.setProperty
+    public void setMaxPerType(int maxPerType) {
+        pool.setMaxPerType(Math.max(1, maxPerType));
+    }
+
+    @Kroll.getProperty
+    public int getMaxPerType() {
+        return pool.maxPerType;
+    }
+
+    @Kroll.method
+    public void clear() {
+        Log.d(TAG, "Clearing shared pool");
+        pool.clearHolders();
+    }
+
+    /**
+     * Returns the pool a pager inflating its pages with the given context should use. Holders
+     * are kept in the shared pool, but a pager only reuses the ones inflated in its own
+     * Activity and releases the others.
+     */
+    public RecyclerView.RecycledViewPool createPool(Context context) {
+        return new ContextPool(pool, context);
+    }
+
+    /**
+     * Releases the pooled holders inflated with the given context, e.g. when its Activity
+     * finishes.
+     */
+    public void releaseHolders(Context context) {
+        pool.releaseHolders(context);
+    }
+
+    @Override
+    public void release() {
+        pool.clearHolders();
+        super.release();
+    }
+
+    /**
+     * Pool shared between several pagers. Template view types are registered lazily, so the
+     * per-type limit is applied the first time a holder of a type is returned to the pool.
+     */
+    private static class SharedRecycledViewPool extends TiVerticalPagerRecycledViewPool {
+        private final SparseBooleanArray configuredTypes = new SparseBooleanArray();
+        private int maxPerType = DEFAULT_MAX_PER_TYPE;
+
+        void setMaxPerType(int maxPerType) {
+            this.maxPerType = maxPerType;
+            for (int i = 0; i < configuredTypes.size(); i++) {
+                setMaxRecycledViews(configuredTypes.keyAt(i), maxPerType);
+            }
+        }
+
+        @Override
+        public void putRecycledView(RecyclerView.ViewHolder scrap) {
+            int viewType = scrap.getItemViewType();
+            if (!configuredTypes.get(viewType)) {
+                configuredTypes.put(viewType, true);
+                setMaxRecycledViews(viewType, maxPerType);
+            }
+            super.putRecycledView(scrap);
+        }
+
+        void clearHolders() {
+            releaseHolders();
+        }
+
+        @Override
+        public void clear() {
+            // RecyclerView clears a pool when the last pager using it drops its adapter.
+            // The shared pool keeps its warm holders for the next pager instead.
+        }
+    }
+
+    /**
+     * View of the shared pool for one pager. A holder inflated in another Activity belongs to
+     * that Activity's window and would keep it alive, so it is released instead of reused.
+     */
+    private static class ContextPool extends RecyclerView.RecycledViewPool {
+        private final SharedRecycledViewPool shared;
+        private final Context context;
+
+        ContextPool(SharedRecycledViewPool shared, Context context) {
+            this.shared = shared;
+            this.context = context;
+        }
+
+        @Override
+        public RecyclerView.ViewHolder getRecycledView(int viewType) {
+            RecyclerView.ViewHolder holder;
+            while ((holder = shared.getRecycledView(viewType)) != null) {
+                if (holder.itemView.getContext() == context) {
+                    return holder;
+                }
+                TiVerticalPagerAdapter.releaseDiscardedHolder(holder);
+            }
+            return null;
+        }
+
+        @Override
+        public void putRecycledView(RecyclerView.ViewHolder scrap) {
+            shared.putRecycledView(scrap);
+        }
+
+        @Override
+        public int getRecycledViewCount(int viewType) {
+            return shared.getRecycledViewCount(viewType);
+        }
+
+        @Override
+        public void setMaxRecycledViews(int viewType, int max) {
+            // Limits are owned by the shared pool, see setMaxPerType
+        }
+
+        @Override
+        public void clear() {
+            // Same as the shared pool, its holders outlive the pager
+        }
+    }
+}
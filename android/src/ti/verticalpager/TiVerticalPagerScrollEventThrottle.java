@@ -0,0 +1,124 @@
+package ti.verticalpager;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+/**
+ * Limits how often 'scroll' events cross the bridge while the user drags.
+ *
+ * Offsets that arrive between two deliveries are coalesced, only the latest one is sent.
+ * The interval is either a number of milliseconds or INTERVAL_FRAME to deliver at most once
+ * per vsync. Offsets are delivered from the throttle's own frame or handler callback, never
+ * from inside the ViewPager2 callback that reported them, so listeners may run JS
+ * synchronously. flush() is the exception: it sends any pending offset right away, so the
+ * last position of a gesture is always delivered before 'scrollend'.
+ */
+public class TiVerticalPagerScrollEventThrottle implements Choreographer.FrameCallback, Runnable {
+
+    public static final int INTERVAL_NONE = 0;
+    public static final int INTERVAL_FRAME = -1;
+
+    public interface Listener {
+        /**
+         * @param posted true when called from the throttle's own callback, false when flushed
+         *               from inside the pager callback that ended the gesture
+         */
+        void onScrollEvent(int page, int offset, boolean posted);
+    }
+
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private int interval = INTERVAL_NONE;
+    private long lastDeliveryTime = 0;
+
+    private boolean hasPending = false;
+    private boolean deliveryPosted = false;
+    private int pendingPage;
+    private int pendingOffset;
+
+    public TiVerticalPagerScrollEventThrottle(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void setInterval(int interval) {
+        if (this.interval != interval) {
+            cancel();
+            this.interval = interval;
+        }
+    }
+
+    public void onScroll(int page, int offset) {
+        pendingPage = page;
+        pendingOffset = offset;
+        hasPending = true;
+
+        if (deliveryPosted) {
+            return;
+        }
+
+        if (interval == INTERVAL_NONE) {
+            // Right after the pager callback returns, offsets are reported once per frame
+            deliveryPosted = true;
+            handler.post(this);
+            return;
+        }
+
+        if (interval == INTERVAL_FRAME) {
+            deliveryPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+            return;
+        }
+
+        long elapsed = SystemClock.uptimeMillis() - lastDeliveryTime;
+        deliveryPosted = true;
+        handler.postDelayed(this, Math.max(0, interval - elapsed));
+    }
+
+    /**
+     * Delivers the pending offset immediately, if there is one.
+     */
+    public void flush() {
+        removePostedDelivery();
+        if (hasPending) {
+            deliver(false);
+        }
+    }
+
+    public void cancel() {
+        removePostedDelivery();
+        hasPending = false;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        deliveryPosted = false;
+        if (hasPending) {
+            deliver(true);
+        }
+    }
+
+    @Override
+    public void run() {
+        deliveryPosted = false;
+        if (hasPending) {
+            deliver(true);
+        }
+    }
+
+    private void removePostedDelivery() {
+        if (deliveryPosted) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            handler.removeCallbacks(this);
+            deliveryPosted = false;
+        }
+    }
+
+    private void deliver(boolean posted) {
+        hasPending = false;
+        lastDeliveryTime = SystemClock.uptimeMillis();
+        listener.onScrollEvent(pendingPage, pendingOffset, posted);
+    }
+}
@@ -0,0 +1,163 @@
+package ti.verticalpager;
+
+import android.view.View;
+
+import org.appcelerator.kroll.KrollDict;
+import org.appcelerator.titanium.proxy.TiViewProxy;
+import org.appcelerator.titanium.util.TiConvert;
+import org.appcelerator.titanium.view.TiUIView;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Binds the opacity, translation and scale of a view to the pager's scroll position.
+ *
+ * Keyframes are given as { offset, opacity, translationX, translationY, scale }. By default
+ * offset is the progress of the current page transition (0 when a page is settled, 1 when
+ * the next one is), so the animation repeats for every page. With 'absolute' the offset is
+ * the scroll position in pages, e.g. 2.5 is halfway between page 2 and page 3.
+ *
+ * Keyframes are parsed once into primitive arrays and applied directly from
+ * onPageScrolled, without going through JS.
+ */
+public class TiVerticalPagerScrollLinkedAnimation {
+
+    private static final int OPACITY = 0;
+    private static final int TRANSLATION_X = 1;
+    private static final int TRANSLATION_Y = 2;
+    private static final int SCALE = 3;
+    private static final int PROPERTY_COUNT = 4;
+
+    private static final String[] PROPERTY_NAMES = { "opacity", "translationX", "translationY", "scale" };
+    private static final float[] PROPERTY_DEFAULTS = { 1f, 0f, 0f, 1f };
+
+    private final TiViewProxy target;
+    private final boolean absolute;
+    private final float[] offsets;
+    private final float[][] values = new float[PROPERTY_COUNT][];
+    private final boolean[] animated = new boolean[PROPERTY_COUNT];
+
+    private TiVerticalPagerScrollLinkedAnimation(TiViewProxy target, boolean absolute, float[] offsets) {
+        this.target = target;
+        this.absolute = absolute;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Parses one entry of 'scrollLinkedAnimations', returns null if it has no target view
+     * or no keyframes. Translations are given in dp and converted with the density.
+     */
+    @SuppressWarnings("unchecked")
+    public static TiVerticalPagerScrollLinkedAnimation fromConfig(Object config, float density) {
+        if (!(config instanceof HashMap)) {
+            return null;
+        }
+
+        KrollDict dict = new KrollDict((HashMap<String, Object>) config);
+        Object view = dict.get("view");
+        Object keyframesObj = dict.get("keyframes");
+        if (!(view instanceof TiViewProxy) || !(keyframesObj instanceof Object[])) {
+            return null;
+        }
+
+        List<KrollDict> keyframes = new ArrayList<>();
+        for (Object keyframe : (Object[]) keyframesObj) {
+            if (keyframe instanceof HashMap) {
+                keyframes.add(new KrollDict((HashMap<String, Object>) keyframe));
+            }
+        }
+        if (keyframes.isEmpty()) {
+            return null;
+        }
+
+        keyframes.sort(new Comparator<KrollDict>() {
+            @Override
+            public int compare(KrollDict a, KrollDict b) {
+                return Float.compare(TiConvert.toFloat(a.get("offset"), 0f), TiConvert.toFloat(b.get("offset"), 0f));
+            }
+        });
+
+        int count = keyframes.size();
+        float[] offsets = new float[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = TiConvert.toFloat(keyframes.get(i).get("offset"), 0f);
+        }
+
+        TiVerticalPagerScrollLinkedAnimation animation = new TiVerticalPagerScrollLinkedAnimation(
+                (TiViewProxy) view, TiConvert.toBoolean(dict.get("absolute"), false), offsets);
+
+        for (int property = 0; property < PROPERTY_COUNT; property++) {
+            String name = PROPERTY_NAMES[property];
+            float unit = (property == TRANSLATION_X || property == TRANSLATION_Y) ? density : 1f;
+            float[] propertyValues = new float[count];
+            float last = PROPERTY_DEFAULTS[property];
+
+            // Keyframes that leave a property out keep the previous value
+            for (int i = 0; i < count; i++) {
+                KrollDict keyframe = keyframes.get(i);
+                if (keyframe.containsKey(name)) {
+                    last = TiConvert.toFloat(keyframe.get(name), last) * unit;
+                    animation.animated[property] = true;
+                }
+                propertyValues[i] = last;
+            }
+
+            animation.values[property] = propertyValues;
+        }
+
+        return animation;
+    }
+
+    public void apply(int position, float positionOffset) {
+        TiUIView targetView = target.peekView();
+        View nativeView = targetView != null ? targetView.getNativeView() : null;
+        if (nativeView == null) {
+            return;
+        }
+
+        float progress = absolute ? position + positionOffset : positionOffset;
+
+        int last = offsets.length - 1;
+        int segment = 0;
+        while (segment < last && progress > offsets[segment + 1]) {
+            segment++;
+        }
+
+        float fraction;
+        if (last == 0 || progress <= offsets[0]) {
+            fraction = 0f;
+        } else if (progress >= offsets[last]) {
+            segment = last;
+            fraction = 0f;
+        } else {
+            float span = offsets[segment + 1] - offsets[segment];
+            fraction = span > 0f ? (progress - offsets[segment]) / span : 0f;
+        }
+
+        if (animated[OPACITY]) {
+            nativeView.setAlpha(interpolate(values[OPACITY], segment, fraction));
+        }
+        if (animated[TRANSLATION_X]) {
+            nativeView.setTranslationX(interpolate(values[TRANSLATION_X], segment, fraction));
+        }
+        if (animated[TRANSLATION_Y]) {
+            nativeView.setTranslationY(interpolate(values[TRANSLATION_Y], segment, fraction));
+        }
+        if (animated[SCALE]) {
+            float scale = interpolate(values[SCALE], segment, fraction);
+            nativeView.setScaleX(scale);
+            nativeView.setScaleY(scale);
+        }
+    }
+
+    private static float interpolate(float[] propertyValues, int segment, float fraction) {
+        float start = propertyValues[segment];
+        if (fraction == 0f || segment + 1 >= propertyValues.length) {
+            return start;
+        }
+        return start + (propertyValues[segment + 1] - start) * fraction;
+    }
+}
@@ -1,14 +1,20 @@
 package ti.verticalpager;
 
-import android.os.Handler;
+import android.app.Activity;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
 import android.graphics.Color;
+import android.os.Build;
+import android.os.SystemClock;
 import android.util.Log;
+import android.view.Display;
 import android.view.Gravity;
 import android.view.View;
+import android.view.ViewGroup;
 import android.widget.FrameLayout;
+import androidx.recyclerview.widget.DefaultItemAnimator;
+import androidx.recyclerview.widget.RecyclerView;
 import androidx.viewpager2.widget.ViewPager2;
-import com.google.android.material.tabs.TabLayout;
-import com.google.android.material.tabs.TabLayoutMediator;
 import org.appcelerator.kroll.KrollDict;
 import org.appcelerator.titanium.proxy.TiViewProxy;
 import org.appcelerator.titanium.util.TiConvert;
@@ -23,9 +29,9 @@ public class TiVerticalPagerView extends TiUIView {
     private int lastScrollDirection = 0; // -1 = up, 0 = none, 1 = down
     private int lastScrollPosition = 0;
     private float lastPositionOffset = 0f;
-    private final Handler preloadHandler = new Handler(android.os.Looper.getMainLooper());
-    private Runnable preloadRunnable;
-    private boolean isPreloading = false;
+    private TiVerticalPagerPreloadScheduler preloadScheduler;
+    private final TiVerticalPagerPrefetchPredictor prefetchPredictor = new TiVerticalPagerPrefetchPredictor();
+    private TiVerticalPagerScrollEventThrottle scrollEventThrottle;
 
     private ViewPager2 viewPager;
     private TiVerticalPagerAdapter adapter;
@@ -33,10 +39,60 @@ public class TiVerticalPagerView extends TiUIView {
     private View pageIndicatorView;
     private FrameLayout containerLayout;
 
-    private TabLayoutMediator tabLayoutMediator;
     private ViewPager2.OnPageChangeCallback pageChangeCallback;
 
+    private static final long ITEM_ANIMATION_DURATION = 150;
+
+    // Memory pressure
+    private static final long MEMORY_PRESSURE_RESTORE_DELAY = 10000;
+    private ComponentCallbacks2 memoryCallbacks;
+    private boolean memoryPressureActive = false;
+    private final Runnable memoryPressureRestoreRunnable = new Runnable() {
+        @Override
+        public void run() {
+            restoreAfterMemoryPressure();
+        }
+    };
+
+    private final Runnable metricsRunnable = new Runnable() {
+        @Override
+        public void run() {
+            pagerProxy.fireMetricsEvent();
+            scheduleMetricsEvent();
+        }
+    };
+
+    // Page transition tracking: whether the neighbours had drawn when the transition started,
+    // and the landed page still waiting for its first draw
+    private int gestureStartPage = -1;
+    private long transitionStartTime = 0;
+    private boolean previousPageReady = false;
+    private boolean nextPageReady = false;
+    private TiViewProxy pendingContentPage;
+    private long pendingContentSince = 0;
+    private long pendingContentTransition = -1;
+    private final TiVerticalPagerAdapter.ContentDrawnListener contentDrawnListener = new TiVerticalPagerAdapter.ContentDrawnListener() {
+        @Override
+        public void onPageContentDrawn(TiViewProxy page, long drawnTime) {
+            if (page == pendingContentPage) {
+                pagerProxy.getPagerMetrics().completeTransition(pendingContentTransition,
+                        Math.max(0, drawnTime - pendingContentSince));
+                clearPendingContent();
+            }
+        }
+    };
+
+    // Page containers switched to hardware layers for the current scroll
+    private View[] hardwareLayerPages = new View[3];
+    private int[] hardwareLayerPreviousTypes = new int[3];
+    // Window being built by enableHardwareLayers, swapped with the arrays above
+    private View[] nextHardwareLayerPages = new View[3];
+    private int[] nextHardwareLayerPreviousTypes = new int[3];
+
     private boolean isScrolling = false;
+    private boolean pageTransformerActive = false;
+    // Page to open at once the first pages are loaded, -1 when applied or given up
+    private int pendingInitialPage = -1;
     private int indicatorType = 0; // 0 = horizontal, 1 = vertical
     private KrollDict pageIndicatorConfig;
 
@@ -55,19 +111,48 @@ public class TiVerticalPagerView extends TiUIView {
             return;
         }
 
+        preloadScheduler = new TiVerticalPagerPreloadScheduler(proxy, new TiVerticalPagerPreloadScheduler.Listener() {
+            @Override
+            public void onPagePreloaded(TiViewProxy page, int position) {
+                if (adapter != null) {
+                    adapter.getPageCache().recordRealized(page, position);
+                }
+            }
+
+            @Override
+            public void onPreloadFinished(int preloaded, int skipped, boolean cancelled) {
+                pagerProxy.firePreloadEvent(preloaded, skipped, cancelled);
+            }
+        });
+
+        scrollEventThrottle = new TiVerticalPagerScrollEventThrottle(new TiVerticalPagerScrollEventThrottle.Listener() {
+            @Override
+            public void onScrollEvent(int page, int offset, boolean posted) {
+                pagerProxy.fireScrollEvent(page, offset, lastScrollDirection, posted);
+            }
+        });
+
         containerLayout = new FrameLayout(proxy.getActivity());
         setupViewPager();
         containerLayout.addView(viewPager);
         setNativeView(containerLayout);
+        registerMemoryCallbacks();
+
+        pagerProxy.getPagerMetrics().setRefreshRate(getRefreshRate(proxy.getActivity()));
+        scheduleMetricsEvent();
 
         Log.d(TAG, "View setup complete, checking for initial properties");
 
         // Process views if they were set before view creation
-        if (proxy.hasProperty("views")) {
-            Log.d(TAG, "Has 'views' property, reloading data");
+        if (proxy.hasProperty("views") || proxy.isDataSourceMode()) {
+            Log.d(TAG, "Has 'views' property or data source, reloading data");
             reloadData();
         }
 
+        // A pager created again for the same proxy resumes where the old one was
+        pendingInitialPage = proxy.peekCurrentPage() > 0 ? proxy.peekCurrentPage() : proxy.getInitialPage();
+        applyInitialPage();
+
         // Process page indicator
         if (proxy.hasProperty("pageIndicator")) {
             Log.d(TAG, "Has 'pageIndicator' property, processing...");
@@ -79,6 +164,10 @@ public class TiVerticalPagerView extends TiUIView {
             Log.w(TAG, "NO 'pageIndicator' property found!");
         }
 
+        if (proxy.hasProperty("pageTransformer")) {
+            setPageTransformer(proxy.getProperty("pageTransformer"));
+        }
+
         if (proxy.hasProperty("pageIndicatorColor")) {
             Log.d(TAG, "Has 'pageIndicatorColor' property");
             setPageIndicatorColor(proxy.getProperty("pageIndicatorColor"));
@@ -102,21 +191,45 @@ public class TiVerticalPagerView extends TiUIView {
         );
         viewPager.setLayoutParams(params);
 
-        adapter = new TiVerticalPagerAdapter(pagerProxy, pagerProxy.getViewProxies());
+        adapter = new TiVerticalPagerAdapter(pagerProxy, pagerProxy.flushViewMutations());
+        adapter.setContentDrawnListener(contentDrawnListener);
+        setRecycledViewPool(pagerProxy.getRecycledViewPool());
         viewPager.setAdapter(adapter);
-        viewPager.setOffscreenPageLimit(pagerProxy.getCacheSize());
+        applyItemAnimator();
+        viewPager.setOffscreenPageLimit(getOffscreenPageLimit());
 
         pageChangeCallback = new ViewPager2.OnPageChangeCallback() {
             @Override
             public void onPageScrollStateChanged(int state) {
                 super.onPageScrollStateChanged(state);
 
+                if (state == ViewPager2.SCROLL_STATE_DRAGGING) {
+                    // The user picked a page, a late initial jump would pull them away from it
+                    pendingInitialPage = -1;
+                    // Stale pre-loading work must not compete with the drag
+                    cancelPreloading();
+                    pagerProxy.getPagerMetrics().startFrameMonitor();
+                } else if (state == ViewPager2.SCROLL_STATE_IDLE) {
+                    pagerProxy.getPagerMetrics().stopFrameMonitor();
+                }
+
+                if (state == ViewPager2.SCROLL_STATE_IDLE) {
+                    disableHardwareLayers();
+                } else if (pagerProxy.getUseHardwareLayersWhileScrolling()) {
+                    enableHardwareLayers();
+                }
+
                 if (state == ViewPager2.SCROLL_STATE_DRAGGING && !isScrolling) {
                     isScrolling = true;
+                    prefetchPredictor.onGestureStart();
+                    recordGestureStart();
+                    scrollEventThrottle.setInterval(pagerProxy.getScrollEventIntervalMode());
                     lastScrollDirection = 0;
-                    pagerProxy.fireScrollStartEvent();
+                    pagerProxy.fireScrollStartEvent(lastScrollDirection);
                 } else if (state == ViewPager2.SCROLL_STATE_IDLE && isScrolling) {
                     isScrolling = false;
+                    // The final offset always reaches JS before 'scrollend'
+                    scrollEventThrottle.flush();
                     handleScrollEnd();
                     schedulePreloading();
                 }
@@ -126,6 +239,10 @@ public class TiVerticalPagerView extends TiUIView {
             public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
                 super.onPageScrolled(position, positionOffset, positionOffsetPixels);
 
+                if (isScrolling) {
+                    prefetchPredictor.onScrolled(position, positionOffset, SystemClock.uptimeMillis());
+                }
+
                 if (Math.abs(positionOffset - lastPositionOffset) > 0.001f) {
                     if (positionOffset > lastPositionOffset) {
                         // Offset aumentando = scrollando para baixo
@@ -147,12 +264,14 @@ public class TiVerticalPagerView extends TiUIView {
                     lastScrollPosition = position;
                 }
 
-                if (pageIndicatorView != null && indicatorType == 1 && pageIndicatorView instanceof TiVerticalPagerIndicator) {
+                if (pageIndicatorView instanceof TiVerticalPagerIndicator) {
                     ((TiVerticalPagerIndicator) pageIndicatorView).setCurrentPageWithOffset(position, positionOffset);
                 }
 
-                if (isScrolling) {
-                    pagerProxy.fireScrollEvent(position, positionOffsetPixels);
+                applyScrollLinkedAnimations(position, positionOffset);
+
+                if (isScrolling && pagerProxy.hasListeners("scroll")) {
+                    scrollEventThrottle.onScroll(position, positionOffsetPixels);
                 }
             }
 
@@ -165,36 +284,141 @@ public class TiVerticalPagerView extends TiUIView {
         viewPager.registerOnPageChangeCallback(pageChangeCallback);
     }
 
+    /**
+     * Renders the current page and its neighbours into GPU textures, so moving them only
+     * composites the textures instead of redrawing their view trees every frame.
+     */
+    private void enableHardwareLayers() {
+        RecyclerView recyclerView = getRecyclerView();
+        if (recyclerView == null) {
+            return;
+        }
+
+        // A fling may have moved the window since the drag started. Pages that stay in it keep
+        // their layer, re-creating it would re-render the page right as the fling starts.
+        int currentItem = viewPager.getCurrentItem();
+        for (int i = 0; i < nextHardwareLayerPages.length; i++) {
+            nextHardwareLayerPages[i] = null;
+            RecyclerView.ViewHolder holder = recyclerView.findViewHolderForAdapterPosition(currentItem - 1 + i);
+            if (!(holder instanceof TiVerticalPagerAdapter.ViewHolder)) {
+                continue;
+            }
+
+            View page = ((TiVerticalPagerAdapter.ViewHolder) holder).container;
+            int layered = indexOfHardwareLayerPage(page);
+            if (layered >= 0) {
+                nextHardwareLayerPreviousTypes[i] = hardwareLayerPreviousTypes[layered];
+                hardwareLayerPages[layered] = null;
+            } else {
+                nextHardwareLayerPreviousTypes[i] = page.getLayerType();
+                if (nextHardwareLayerPreviousTypes[i] != View.LAYER_TYPE_HARDWARE) {
+                    page.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                }
+            }
+            nextHardwareLayerPages[i] = page;
+        }
+
+        // Whatever is left in the old window has moved out of it
+        disableHardwareLayers();
+
+        View[] pages = hardwareLayerPages;
+        hardwareLayerPages = nextHardwareLayerPages;
+        nextHardwareLayerPages = pages;
+        int[] types = hardwareLayerPreviousTypes;
+        hardwareLayerPreviousTypes = nextHardwareLayerPreviousTypes;
+        nextHardwareLayerPreviousTypes = types;
+    }
+
+    private int indexOfHardwareLayerPage(View page) {
+        for (int i = 0; i < hardwareLayerPages.length; i++) {
+            if (hardwareLayerPages[i] == page) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void disableHardwareLayers() {
+        for (int i = 0; i < hardwareLayerPages.length; i++) {
+            View page = hardwareLayerPages[i];
+            if (page != null) {
+                if (hardwareLayerPreviousTypes[i] != View.LAYER_TYPE_HARDWARE) {
+                    page.setLayerType(hardwareLayerPreviousTypes[i], null);
+                }
+                hardwareLayerPages[i] = null;
+            }
+        }
+    }
+
     private void handleScrollEnd() {
         int newPage = viewPager.getCurrentItem();
-        int oldPage = pagerProxy.getCurrentPage();
+        int oldPage = pagerProxy.peekCurrentPage();
 
-        if (newPage < 0 || newPage >= pagerProxy.getViewProxies().size()) {
+        if (newPage < 0 || newPage >= pagerProxy.getPageCount()) {
             Log.w(TAG, "Invalid page index: " + newPage);
             return;
         }
 
         if (newPage != oldPage) {
+            prefetchPredictor.onPageSettled(SystemClock.uptimeMillis());
             pagerProxy.setCurrentPage(newPage);
             updatePageIndicator(newPage);
 
-            TiViewProxy currentView = pagerProxy.getViewProxies().get(newPage);
-            TiViewProxy previousView = (oldPage >= 0 && oldPage < pagerProxy.getViewProxies().size())
-                    ? pagerProxy.getViewProxies().get(oldPage)
-                    : null;
+            TiViewProxy currentView = getPageProxy(newPage);
+            TiViewProxy previousView = getPageProxy(oldPage);
+
+            // A preload hit means the landed page had drawn its content before the swipe began
+            TiVerticalPagerMetrics metrics = pagerProxy.getPagerMetrics();
+            boolean preloadHit = newPage == gestureStartPage - 1 ? previousPageReady
+                    : newPage == gestureStartPage + 1 && nextPageReady;
+            int createdBy = metrics.getCreatedBy(currentView);
+            long timeToContent = getTimeToContent(currentView, preloadHit);
+            long transition = metrics.recordTransition(preloadHit, createdBy, timeToContent);
+            if (timeToContent < 0) {
+                waitForContent(currentView, transition);
+            }
+            gestureStartPage = -1;
+            transitionStartTime = 0;
+
+            pagerProxy.fireChangeEvent(newPage, oldPage, currentView, previousView, preloadHit,
+                    TiVerticalPagerMetrics.createdByName(createdBy), timeToContent);
 
-            pagerProxy.fireChangeEvent(newPage, oldPage, currentView, previousView);
+            if (currentView != null && adapter != null) {
+                adapter.getPageCache().touch(currentView);
+            }
+            releaseDistantPages(newPage);
+            trimPageCache();
         }
 
         pagerProxy.fireScrollEndEvent();
     }
 
+    private RecyclerView getRecyclerView() {
+        if (viewPager != null && viewPager.getChildCount() > 0 && viewPager.getChildAt(0) instanceof RecyclerView) {
+            return (RecyclerView) viewPager.getChildAt(0);
+        }
+        return null;
+    }
+
+    private TiViewProxy getPageProxy(int position) {
+        if (adapter == null || position < 0) {
+            return null;
+        }
+        return adapter.getPageProxy(getRecyclerView(), position);
+    }
+
     public void reloadData() {
+        cancelPreloading();
+
         if (adapter != null) {
-            adapter.updateData(pagerProxy.getViewProxies());
+            if (pagerProxy.isDataSourceMode()) {
+                adapter.updateItemCount(pagerProxy.getItemCount());
+            } else {
+                adapter.updateData(pagerProxy.getViewProxies());
+            }
 
-            int cacheSize = Math.max(1, pagerProxy.getCacheSize());
-            viewPager.setOffscreenPageLimit(cacheSize);
+            viewPager.setOffscreenPageLimit(getOffscreenPageLimit());
+            applyInitialPage();
 
             if (pageIndicatorView != null) {
                 updatePageIndicatorPages();
@@ -202,102 +426,260 @@ public class TiVerticalPagerView extends TiUIView {
         }
     }
 
+    /**
+     * Jumps to the initial page without animation once the first pages are loaded. Before the
+     * first layout this only moves the pending scroll position of the layout manager, so only
+     * the pages around the target are ever bound. The jump is given up if the first pages do
+     * not reach the target, later additions must not move the user.
+     */
+    private void applyInitialPage() {
+        if (pendingInitialPage < 0 || viewPager == null) {
+            return;
+        }
+
+        int pageCount = pagerProxy.getPageCount();
+        if (pageCount == 0) {
+            // Nothing loaded yet, try again on the next reload
+            return;
+        }
+
+        int page = pendingInitialPage;
+        pendingInitialPage = -1;
+        if (page == 0 || page >= pageCount) {
+            return;
+        }
+
+        pagerProxy.setCurrentPage(page);
+        viewPager.setCurrentItem(page, false);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static float getRefreshRate(Activity activity) {
+        Display display = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? activity.getDisplay()
+                : activity.getWindowManager().getDefaultDisplay();
+        return display != null ? display.getRefreshRate() : 0f;
+    }
+
+    /**
+     * Number of pages whose native view is currently realized. Data source pages belong to
+     * their holders and are not in the page cache, they are counted by the adapter.
+     */
+    public int getRealizedPageCount() {
+        return adapter != null ? adapter.getPageCache().size() + adapter.getDataSourcePageCount() : 0;
+    }
+
+    /**
+     * (Re)starts the periodic 'metrics' event from the current 'metricsInterval'.
+     */
+    public void scheduleMetricsEvent() {
+        if (containerLayout == null) {
+            return;
+        }
+        containerLayout.removeCallbacks(metricsRunnable);
+
+        int interval = pagerProxy.getMetricsInterval();
+        if (interval > 0) {
+            containerLayout.postDelayed(metricsRunnable, interval);
+        }
+    }
+
+    public void setRecycledViewPool(TiVerticalPagerRecycledViewPoolProxy pool) {
+        RecyclerView recyclerView = getRecyclerView();
+        if (recyclerView == null) {
+            return;
+        }
+
+        // Holders of a private pool are dropped with it, a shared pool ignores clear()
+        RecyclerView.RecycledViewPool previous = recyclerView.getRecycledViewPool();
+        if (previous != null) {
+            previous.clear();
+        }
+
+        // Without a shared pool the pager gets a private one, which still releases the
+        // data source pages of the holders it drops
+        recyclerView.setRecycledViewPool(pool != null
+                ? pool.createPool(pagerProxy.getActivity())
+                : new TiVerticalPagerRecycledViewPool());
+    }
+
+    public void setPageTransformer(Object config) {
+        if (viewPager == null) {
+            return;
+        }
+
+        float density = containerLayout.getResources().getDisplayMetrics().density;
+        ViewPager2.PageTransformer transformer = TiVerticalPagerPageTransformers.fromConfig(config, density);
+        viewPager.setPageTransformer(transformer);
+        pageTransformerActive = transformer != null;
+
+        if (transformer == null) {
+            // ViewPager2 restores the animator it saw before the first transformer
+            applyItemAnimator();
+
+            // ViewPager2 leaves the last transform on the pages when the transformer is removed
+            RecyclerView recyclerView = getRecyclerView();
+            if (recyclerView != null) {
+                for (int i = 0; i < recyclerView.getChildCount(); i++) {
+                    TiVerticalPagerPageTransformers.resetPage(recyclerView.getChildAt(i));
+                }
+            }
+        } else {
+            viewPager.requestTransform();
+        }
+    }
+
+    /**
+     * Installs the item animator for inserts and removals, or none when 'itemAnimations' is off.
+     * ViewPager2 turns item animations off while a page transformer is set, both would move
+     * the same pages.
+     */
+    public void applyItemAnimator() {
+        RecyclerView recyclerView = getRecyclerView();
+        if (recyclerView == null || pageTransformerActive) {
+            return;
+        }
+
+        if (!pagerProxy.getItemAnimations()) {
+            recyclerView.setItemAnimator(null);
+            return;
+        }
+
+        // RecyclerView only animates holders that take part in the layout, i.e. the pages on
+        // screen. Changes are never animated, a page keeps its view when the list changes.
+        DefaultItemAnimator animator = new DefaultItemAnimator();
+        animator.setSupportsChangeAnimations(false);
+        animator.setAddDuration(ITEM_ANIMATION_DURATION);
+        animator.setRemoveDuration(ITEM_ANIMATION_DURATION);
+        animator.setMoveDuration(ITEM_ANIMATION_DURATION);
+        animator.setChangeDuration(0);
+        recyclerView.setItemAnimator(animator);
+    }
+
+    public void invalidateTemplates() {
+        if (adapter != null) {
+            adapter.invalidateTemplates();
+        }
+    }
+
+    private void recordGestureStart() {
+        gestureStartPage = viewPager.getCurrentItem();
+        transitionStartTime = SystemClock.uptimeMillis();
+        previousPageReady = hasContent(getPageProxy(gestureStartPage - 1));
+        nextPageReady = hasContent(getPageProxy(gestureStartPage + 1));
+    }
+
+    /**
+     * Whether the page's own view tree has been drawn since it was bound. Being attached and
+     * laid out is not enough, the first draw is where a heavy page actually costs time.
+     */
+    private static boolean hasContent(TiViewProxy page) {
+        return TiVerticalPagerAdapter.getContentDrawnTime(page) > 0;
+    }
+
+    /**
+     * Time the landed page showed no content after the transition started: 0 when it had
+     * already drawn before, -1 while it has not drawn yet.
+     */
+    private long getTimeToContent(TiViewProxy page, boolean preloadHit) {
+        if (preloadHit) {
+            return 0;
+        }
+        long drawnTime = TiVerticalPagerAdapter.getContentDrawnTime(page);
+        if (drawnTime == 0) {
+            return -1;
+        }
+        return transitionStartTime > 0 ? Math.max(0, drawnTime - transitionStartTime) : 0;
+    }
+
+    /**
+     * Measures the time until the landed page is first drawn. Only the latest transition is
+     * followed, an earlier one still waiting keeps its time unknown.
+     */
+    private void waitForContent(TiViewProxy page, long transition) {
+        clearPendingContent();
+        if (page == null) {
+            return;
+        }
+
+        pendingContentPage = page;
+        pendingContentTransition = transition;
+        pendingContentSince = transitionStartTime > 0 ? transitionStartTime : SystemClock.uptimeMillis();
+    }
+
+    private void clearPendingContent() {
+        pendingContentPage = null;
+        pendingContentTransition = -1;
+    }
+
     public void scrollToPage(int page, boolean animated) {
-        if (page >= 0 && page < pagerProxy.getViewProxies().size()) {
+        pendingInitialPage = -1;
+        if (page >= 0 && page < pagerProxy.getPageCount()) {
+            recordGestureStart();
             viewPager.setCurrentItem(page, animated);
             updatePageIndicator(page);
         }
     }
 
     private void schedulePreloading() {
-        if (preloadRunnable != null) {
-            preloadHandler.removeCallbacks(preloadRunnable);
+        if (preloadScheduler == null) {
+            return;
         }
 
-        preloadRunnable = new Runnable() {
-            @Override
-            public void run() {
-                performIntelligentPreloading();
-            }
-        };
-
-        preloadHandler.postDelayed(preloadRunnable, 100);
+        preloadScheduler.setStartDelay(pagerProxy.getPreloadDelay());
+        preloadScheduler.setFrameBudget(pagerProxy.getPreloadFrameBudget());
+        performIntelligentPreloading();
     }
 
     private void performIntelligentPreloading() {
-        if (isPreloading || pagerProxy == null) {
+        if (pagerProxy == null) {
             return;
         }
 
-        isPreloading = true;
-        int currentPage = pagerProxy.getCurrentPage();
-        int totalPages = pagerProxy.getViewProxies().size();
-        int cacheSize = pagerProxy.getCacheSize();
+        // Data source pages only exist while bound, RecyclerView already builds them ahead
+        if (pagerProxy.isDataSourceMode()) {
+            return;
+        }
+
+        int currentPage = pagerProxy.peekCurrentPage();
+        int totalPages = pagerProxy.getPageCount();
+
+        prefetchPredictor.setPolicy(pagerProxy.getPrefetchMin(), pagerProxy.getPrefetchMax(),
+                pagerProxy.getPrefetchVelocityScale());
+        int window = prefetchPredictor.getWindow();
 
-        Log.d(TAG, "Starting intelligent pre-loading from page " + currentPage);
+        Log.d(TAG, "Starting intelligent pre-loading from page " + currentPage + ", window " + window);
 
         int preloadStart, preloadEnd;
 
         if (lastScrollDirection > 0) {
-            preloadStart = currentPage + cacheSize;
-            preloadEnd = Math.min(totalPages - 1, currentPage + cacheSize + 2);
+            preloadStart = currentPage + 1;
+            preloadEnd = Math.min(totalPages - 1, currentPage + window);
             Log.d(TAG, "Pre-loading DOWN: pages " + preloadStart + " to " + preloadEnd);
         } else if (lastScrollDirection < 0) {
-            preloadStart = Math.max(0, currentPage - cacheSize - 2);
-            preloadEnd = currentPage - cacheSize;
+            preloadStart = Math.max(0, currentPage - window);
+            preloadEnd = currentPage - 1;
             Log.d(TAG, "Pre-loading UP: pages " + preloadStart + " to " + preloadEnd);
         } else {
-            preloadStart = Math.max(0, currentPage - cacheSize - 1);
-            preloadEnd = Math.min(totalPages - 1, currentPage + cacheSize + 1);
+            preloadStart = Math.max(0, currentPage - window);
+            preloadEnd = Math.min(totalPages - 1, currentPage + window);
             Log.d(TAG, "Pre-loading BOTH: pages " + preloadStart + " to " + preloadEnd);
         }
 
-        preloadViewsInRange(preloadStart, preloadEnd, 0);
+        preloadScheduler.schedule(pagerProxy.getViewProxies(), currentPage, preloadStart, preloadEnd);
     }
 
-    private void preloadViewsInRange(final int start, final int end, final int delay) {
-        if (start > end || start < 0) {
-            isPreloading = false;
-            return;
+    private void cancelPreloading() {
+        if (preloadScheduler != null) {
+            preloadScheduler.cancel();
         }
-
-        preloadHandler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    TiViewProxy viewProxy = pagerProxy.getViewProxies().get(start);
-
-                    if (viewProxy != null) {
-                        Log.d(TAG, "Pre-loading view at position " + start);
-
-                        if (viewProxy.getParent() == null) {
-                            viewProxy.setParent(pagerProxy);
-                        }
-
-                        viewProxy.getOrCreateView();
-
-                        Log.d(TAG, "View " + start + " pre-loaded successfully");
-                    }
-                } catch (Exception e) {
-                    Log.e(TAG, "Error pre-loading view " + start + ": " + e.getMessage());
-                }
-
-                if (start < end) {
-                    preloadViewsInRange(start + 1, end, 50); // 50ms entre cada
-                } else {
-                    isPreloading = false;
-                    Log.d(TAG, "Pre-loading complete");
-                }
-            }
-        }, delay);
     }
 
-    private void cancelPreloading() {
-        if (preloadRunnable != null) {
-            preloadHandler.removeCallbacks(preloadRunnable);
+    public void applyScrollLinkedAnimations(int position, float positionOffset) {
+        TiVerticalPagerScrollLinkedAnimation[] animations = pagerProxy.getScrollLinkedAnimations();
+        for (int i = 0; i < animations.length; i++) {
+            animations[i].apply(position, positionOffset);
         }
-        preloadHandler.removeCallbacksAndMessages(null);
-        isPreloading = false;
     }
 
     public int getScrollDirection() {
@@ -367,36 +749,38 @@ public class TiVerticalPagerView extends TiUIView {
 
         Log.d(TAG, "Creating page indicator, type: " + (indicatorType == 1 ? "VERTICAL" : "HORIZONTAL"));
 
-        if (indicatorType == 1) {
-            Log.d(TAG, "Calling setupVerticalPageIndicator()");
-            setupVerticalPageIndicator();
+        Log.d(TAG, "Calling setupPageIndicator()");
+        setupPageIndicator(indicatorType == 1
+                ? TiVerticalPagerIndicator.ORIENTATION_VERTICAL
+                : TiVerticalPagerIndicator.ORIENTATION_HORIZONTAL);
 
-            if (pageIndicatorView instanceof TiVerticalPagerIndicator indicator) {
+        if (pageIndicatorView instanceof TiVerticalPagerIndicator indicator) {
 
-                if (pageIndicatorConfig.containsKey("normalDotSize")) {
-                    float size = TiConvert.toFloat(pageIndicatorConfig.get("normalDotSize"), 6f);
-                    indicator.setNormalDotSize(size);
-                }
+            if (pageIndicatorConfig.containsKey("normalDotSize")) {
+                float size = TiConvert.toFloat(pageIndicatorConfig.get("normalDotSize"), 6f);
+                indicator.setNormalDotSize(size);
+            }
 
-                if (pageIndicatorConfig.containsKey("activeDotSize")) {
-                    float size = TiConvert.toFloat(pageIndicatorConfig.get("activeDotSize"), 8f);
-                    indicator.setActiveDotSize(size);
-                }
+            if (pageIndicatorConfig.containsKey("activeDotSize")) {
+                float size = TiConvert.toFloat(pageIndicatorConfig.get("activeDotSize"), 8f);
+                indicator.setActiveDotSize(size);
+            }
 
-                if (pageIndicatorConfig.containsKey("minDotSize")) {
-                    float size = TiConvert.toFloat(pageIndicatorConfig.get("minDotSize"), 3f);
-                    indicator.setMinDotSize(size);
-                }
+            if (pageIndicatorConfig.containsKey("minDotSize")) {
+                float size = TiConvert.toFloat(pageIndicatorConfig.get("minDotSize"), 3f);
+                indicator.setMinDotSize(size);
+            }
 
-                if (pageIndicatorConfig.containsKey("dotSpacing")) {
-                    float spacing = TiConvert.toFloat(pageIndicatorConfig.get("dotSpacing"), 16f);
-                    indicator.setDotSpacing(spacing);
-                }
+            if (pageIndicatorConfig.containsKey("dotSpacing")) {
+                float spacing = TiConvert.toFloat(pageIndicatorConfig.get("dotSpacing"), 16f);
+                indicator.setDotSpacing(spacing);
             }
 
-        } else {
-            Log.d(TAG, "Calling setupHorizontalPageIndicator()");
-            setupHorizontalPageIndicator();
+            if (pageIndicatorConfig.containsKey("maxVisibleDots")) {
+                int maxVisibleDots = TiConvert.toInt(pageIndicatorConfig.get("maxVisibleDots"),
+                        TiVerticalPagerIndicator.DEFAULT_MAX_VISIBLE_DOTS);
+                indicator.setMaxVisibleDots(maxVisibleDots);
+            }
         }
 
         Log.d(TAG, "PageIndicator created: " + (pageIndicatorView != null));
@@ -407,30 +791,26 @@ public class TiVerticalPagerView extends TiUIView {
     }
 
     private void cleanupPageIndicator() {
-        if (tabLayoutMediator != null) {
-            tabLayoutMediator.detach();
-            tabLayoutMediator = null;
-        }
-
         if (pageIndicatorView != null) {
             containerLayout.removeView(pageIndicatorView);
             pageIndicatorView = null;
         }
     }
 
-    private void setupVerticalPageIndicator() {
-        Log.d(TAG, "setupVerticalPageIndicator START");
+    private void setupPageIndicator(int orientation) {
+        Log.d(TAG, "setupPageIndicator START");
 
         if (pagerProxy.getActivity() == null) {
             Log.e(TAG, "Activity is null, cannot create page indicator");
             return;
         }
 
-        Log.d(TAG, "Creating VerticalPageIndicator...");
+        Log.d(TAG, "Creating page indicator...");
         TiVerticalPagerIndicator indicator = new TiVerticalPagerIndicator(pagerProxy.getActivity());
+        indicator.setOrientation(orientation);
 
-        int numPages = pagerProxy.getViewProxies().size();
-        int currentPage = pagerProxy.getCurrentPage();
+        int numPages = pagerProxy.getPageCount();
+        int currentPage = pagerProxy.peekCurrentPage();
 
         Log.d(TAG, "Setting numberOfPages: " + numPages);
         indicator.setNumberOfPages(numPages);
@@ -464,53 +844,7 @@ public class TiVerticalPagerView extends TiUIView {
         containerLayout.addView(pageIndicatorView);
 
         Log.d(TAG, "Indicator added! Child count: " + containerLayout.getChildCount());
-        Log.d(TAG, "setupVerticalPageIndicator DONE");
-    }
-
-    private void setupHorizontalPageIndicator() {
-
-        if (pagerProxy.getActivity() == null) {
-            Log.e(TAG, "Activity is null, cannot create page indicator");
-            return;
-        }
-
-        TabLayout indicator = new TabLayout(pagerProxy.getActivity());
-        indicator.setTabMode(TabLayout.MODE_SCROLLABLE);
-        indicator.setSelectedTabIndicatorColor(Color.TRANSPARENT);
-        indicator.setTabRippleColor(null);
-
-        FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(
-                FrameLayout.LayoutParams.WRAP_CONTENT,
-                FrameLayout.LayoutParams.WRAP_CONTENT
-        );
-
-        // Position
-        positionPageIndicator(params);
-
-        indicator.setLayoutParams(params);
-        pageIndicatorView = indicator;
-        containerLayout.addView(pageIndicatorView);
-
-        // Attach to ViewPager2
-        tabLayoutMediator = new TabLayoutMediator(indicator, viewPager, (tab, position) -> {
-            // Don't set any text, just create empty tabs as dots
-        });
-
-        // Style the tabs to look like dots
-        styleTabLayoutAsDots(indicator);
-    }
-
-    private void styleTabLayoutAsDots(TabLayout tabLayout) {
-        // This styles the TabLayout to look like page dots
-        tabLayout.post(() -> {
-            for (int i = 0; i < tabLayout.getTabCount(); i++) {
-                TabLayout.Tab tab = tabLayout.getTabAt(i);
-                if (tab != null) {
-                    View tabView = tab.view;
-                    tabView.setBackgroundColor(Color.TRANSPARENT);
-                }
-            }
-        });
+        Log.d(TAG, "setupPageIndicator DONE");
     }
 
     private void positionPageIndicator(FrameLayout.LayoutParams params) {
@@ -554,10 +888,18 @@ public class TiVerticalPagerView extends TiUIView {
             return;
         }
 
-        if (indicatorType == 1 && pageIndicatorView instanceof TiVerticalPagerIndicator) {
+        if (pageIndicatorView instanceof TiVerticalPagerIndicator) {
             ((TiVerticalPagerIndicator) pageIndicatorView).setCurrentPage(page);
         }
-        // TabLayout updates automatically via TabLayoutMediator
+    }
+
+    /**
+     * Lets the indicator animate the dots of removed pages out before the data is reloaded.
+     */
+    public void onPagesRemoved(int start, int count) {
+        if (pageIndicatorView instanceof TiVerticalPagerIndicator) {
+            ((TiVerticalPagerIndicator) pageIndicatorView).removePages(start, count);
+        }
     }
 
     private void updatePageIndicatorPages() {
@@ -565,17 +907,16 @@ public class TiVerticalPagerView extends TiUIView {
             return;
         }
 
-        if (indicatorType == 1 && pageIndicatorView instanceof TiVerticalPagerIndicator) {
-            ((TiVerticalPagerIndicator) pageIndicatorView).setNumberOfPages(pagerProxy.getViewProxies().size());
-            ((TiVerticalPagerIndicator) pageIndicatorView).setCurrentPage(pagerProxy.getCurrentPage());
+        if (pageIndicatorView instanceof TiVerticalPagerIndicator) {
+            ((TiVerticalPagerIndicator) pageIndicatorView).setNumberOfPages(pagerProxy.getPageCount());
+            ((TiVerticalPagerIndicator) pageIndicatorView).setCurrentPage(pagerProxy.peekCurrentPage());
         }
-        // TabLayout updates automatically via adapter notifyDataSetChanged
     }
 
     public void setPageIndicatorColor(Object color) {
         pageIndicatorColor = TiConvert.toColor(color.toString());
 
-        if (pageIndicatorView != null && indicatorType == 1 && pageIndicatorView instanceof TiVerticalPagerIndicator) {
+        if (pageIndicatorView instanceof TiVerticalPagerIndicator) {
             ((TiVerticalPagerIndicator) pageIndicatorView).setPageIndicatorColor(pageIndicatorColor);
         }
     }
@@ -583,11 +924,156 @@ public class TiVerticalPagerView extends TiUIView {
     public void setCurrentPageIndicatorColor(Object color) {
         currentPageIndicatorColor = TiConvert.toColor(color.toString());
 
-        if (pageIndicatorView != null && indicatorType == 1 && pageIndicatorView instanceof TiVerticalPagerIndicator) {
+        if (pageIndicatorView instanceof TiVerticalPagerIndicator) {
             ((TiVerticalPagerIndicator) pageIndicatorView).setCurrentPageIndicatorColor(currentPageIndicatorColor);
         }
     }
 
+    private int getOffscreenPageLimit() {
+        // Under memory pressure only the direct neighbours stay bound
+        return memoryPressureActive ? 1 : Math.max(1, pagerProxy.getCacheSize());
+    }
+
+    private void registerMemoryCallbacks() {
+        memoryCallbacks = new ComponentCallbacks2() {
+            @Override
+            public void onTrimMemory(int level) {
+                // UI_HIDDEN only means the app went to the background, not that memory is low
+                if (level >= TRIM_MEMORY_RUNNING_LOW && level != TRIM_MEMORY_UI_HIDDEN) {
+                    handleMemoryPressure(level);
+                }
+            }
+
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+            }
+
+            @Override
+            public void onLowMemory() {
+                handleMemoryPressure(TRIM_MEMORY_COMPLETE);
+            }
+        };
+        pagerProxy.getActivity().getApplicationContext().registerComponentCallbacks(memoryCallbacks);
+    }
+
+    private void unregisterMemoryCallbacks() {
+        if (memoryCallbacks != null && pagerProxy.getActivity() != null) {
+            pagerProxy.getActivity().getApplicationContext().unregisterComponentCallbacks(memoryCallbacks);
+        }
+        memoryCallbacks = null;
+    }
+
+    private void handleMemoryPressure(int level) {
+        if (viewPager == null) {
+            return;
+        }
+
+        Log.w(TAG, "Memory pressure, level " + level);
+
+        cancelPreloading();
+
+        if (!memoryPressureActive) {
+            memoryPressureActive = true;
+            viewPager.setOffscreenPageLimit(getOffscreenPageLimit());
+        }
+
+        int currentPage = pagerProxy.peekCurrentPage();
+        int evicted = releasePagesOutside(currentPage - 1, currentPage + 1, false);
+
+        Log.w(TAG, "Released " + evicted + " page views");
+        pagerProxy.fireMemoryWarningEvent(evicted, level);
+
+        // Keep the reduced window until no new warning arrived for a while
+        containerLayout.removeCallbacks(memoryPressureRestoreRunnable);
+        containerLayout.postDelayed(memoryPressureRestoreRunnable, MEMORY_PRESSURE_RESTORE_DELAY);
+    }
+
+    private void restoreAfterMemoryPressure() {
+        if (!memoryPressureActive || viewPager == null) {
+            return;
+        }
+
+        Log.d(TAG, "Memory pressure cleared, restoring cache size");
+        memoryPressureActive = false;
+        viewPager.setOffscreenPageLimit(getOffscreenPageLimit());
+    }
+
+    /**
+     * Releases the native views of all realized pages outside first..last.
+     * The page proxies and their properties stay, the views are realized again when the
+     * pages are bound.
+     */
+    private int releasePagesOutside(int first, int last, boolean keepAttached) {
+        if (pagerProxy.isDataSourceMode() || adapter == null) {
+            return 0;
+        }
+
+        return adapter.getPageCache().evictOutside(first, last, pagerProxy, keepAttached,
+                new TiVerticalPagerPageCache.Evictor() {
+                    @Override
+                    public void evict(TiViewProxy page) {
+                        releasePageView(page);
+                    }
+                });
+    }
+
+    /**
+     * Releases pages further than 'releaseDistance' from the current page.
+     */
+    private void releaseDistantPages(int currentPage) {
+        int distance = pagerProxy.getReleaseDistance();
+        if (distance <= 0) {
+            return;
+        }
+
+        // Pages still bound as offscreen neighbours are kept, they would show up blank
+        int released = releasePagesOutside(currentPage - distance, currentPage + distance, true);
+        if (released > 0) {
+            Log.d(TAG, "Released " + released + " pages further than " + distance + " from page " + currentPage);
+        }
+    }
+
+    /**
+     * Evicts least recently used pages while the realized pages exceed 'cacheBudgetBytes'.
+     */
+    private void trimPageCache() {
+        long budget = pagerProxy.getCacheBudget();
+        if (budget <= 0 || adapter == null) {
+            return;
+        }
+
+        TiVerticalPagerPageCache pageCache = adapter.getPageCache();
+        int evicted = pageCache.trimToBudget(budget, pagerProxy, new TiVerticalPagerPageCache.Evictor() {
+            @Override
+            public void evict(TiViewProxy page) {
+                releasePageView(page);
+            }
+        });
+
+        if (evicted > 0) {
+            Log.d(TAG, "Evicted " + evicted + " pages, cache now " + pageCache.getTotalCost() + " bytes");
+        }
+    }
+
+    private boolean releasePageView(TiViewProxy page) {
+        TiUIView pageView = page != null ? page.peekView() : null;
+        if (pageView == null) {
+            return false;
+        }
+
+        if (adapter != null) {
+            adapter.getPageCache().remove(page);
+        }
+
+        View nativeView = pageView.getNativeView();
+        if (nativeView != null && nativeView.getParent() instanceof ViewGroup) {
+            ((ViewGroup) nativeView.getParent()).removeView(nativeView);
+        }
+
+        page.releaseViews();
+        return true;
+    }
+
     public void manualRelease() {
         Log.d(TAG, "Manual cleanup called");
 
@@ -612,6 +1098,17 @@ public class TiVerticalPagerView extends TiUIView {
         Log.d(TAG, "Release called");
 
         cancelPreloading();
+        if (scrollEventThrottle != null) {
+            scrollEventThrottle.cancel();
+        }
+        disableHardwareLayers();
+        unregisterMemoryCallbacks();
+        pagerProxy.getPagerMetrics().stopFrameMonitor();
+        clearPendingContent();
+        if (containerLayout != null) {
+            containerLayout.removeCallbacks(memoryPressureRestoreRunnable);
+            containerLayout.removeCallbacks(metricsRunnable);
+        }
 
         if (viewPager != null && pageChangeCallback != null) {
             viewPager.unregisterOnPageChangeCallback(pageChangeCallback);
@@ -625,6 +1122,14 @@ public class TiVerticalPagerView extends TiUIView {
             viewPager = null;
         }
 
+        // Holders pooled by a finishing Activity can never be reused, don't let the shared
+        // pool keep it alive
+        Activity activity = pagerProxy.getActivity();
+        TiVerticalPagerRecycledViewPoolProxy sharedPool = pagerProxy.getRecycledViewPool();
+        if (sharedPool != null && activity != null && activity.isFinishing()) {
+            sharedPool.releaseHolders(activity);
+        }
+
         if (adapter != null) {
             adapter = null;
         }
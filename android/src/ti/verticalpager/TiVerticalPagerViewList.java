@@ -0,0 +1,166 @@
+package ti.verticalpager;
+
+import org.appcelerator.titanium.proxy.TiViewProxy;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable snapshot of the page list.
+ *
+ * Pages are stored in fixed-size chunks. A change returns a new snapshot that shares every
+ * chunk before the first changed index with the old one, so appending or replacing a page
+ * copies at most one chunk plus the chunk table instead of the whole list. Readers take a
+ * snapshot in O(1) and can keep using it while writers publish newer versions.
+ */
+public final class TiVerticalPagerViewList extends AbstractList<TiViewProxy> implements RandomAccess {
+
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    public static final TiVerticalPagerViewList EMPTY = new TiVerticalPagerViewList(new TiViewProxy[0][], 0);
+
+    private final TiViewProxy[][] chunks;
+    private final int size;
+
+    private TiVerticalPagerViewList(TiViewProxy[][] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    @Override
+    public TiViewProxy get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return chunks[index >> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of leading pages two snapshots have in common. Chunks shared by both are
+     * skipped without looking at their pages.
+     */
+    public static int commonPrefixLength(TiVerticalPagerViewList a, TiVerticalPagerViewList b) {
+        int max = Math.min(a.size, b.size);
+        int index = 0;
+
+        int chunk = 0;
+        while (index + CHUNK_SIZE <= max && a.chunks[chunk] == b.chunks[chunk]) {
+            index += CHUNK_SIZE;
+            chunk++;
+        }
+        while (index < max && a.get(index) == b.get(index)) {
+            index++;
+        }
+        return index;
+    }
+
+    public TiVerticalPagerViewList withPages(List<TiViewProxy> pages) {
+        Builder builder = new Builder(this, 0, pages.size());
+        builder.addAll(pages, 0, pages.size());
+        return builder.build();
+    }
+
+    public TiVerticalPagerViewList withInserted(int index, List<TiViewProxy> pages) {
+        if (pages.isEmpty()) {
+            return this;
+        }
+        Builder builder = new Builder(this, index, size + pages.size());
+        builder.addAll(this, builder.count, index);
+        builder.addAll(pages, 0, pages.size());
+        builder.addAll(this, index, size);
+        return builder.build();
+    }
+
+    public TiVerticalPagerViewList withRemoved(int start, int end) {
+        if (start >= end) {
+            return this;
+        }
+        Builder builder = new Builder(this, start, size - (end - start));
+        builder.addAll(this, builder.count, start);
+        builder.addAll(this, end, size);
+        return builder.build();
+    }
+
+    /**
+     * Replaces pages from the given index on, growing the list if the replacements
+     * run past its end.
+     */
+    public TiVerticalPagerViewList withReplaced(int start, List<TiViewProxy> pages) {
+        if (pages.isEmpty()) {
+            return this;
+        }
+        int end = start + pages.size();
+        Builder builder = new Builder(this, start, Math.max(size, end));
+        builder.addAll(this, builder.count, start);
+        builder.addAll(pages, 0, pages.size());
+        builder.addAll(this, Math.min(end, size), size);
+        return builder.build();
+    }
+
+    public TiVerticalPagerViewList withMoved(int from, int to) {
+        if (from == to) {
+            return this;
+        }
+        TiViewProxy moved = get(from);
+        int low = Math.min(from, to);
+        int high = Math.max(from, to);
+
+        Builder builder = new Builder(this, low, size);
+        builder.addAll(this, builder.count, low);
+        if (from < to) {
+            builder.addAll(this, from + 1, to + 1);
+            builder.add(moved);
+        } else {
+            builder.add(moved);
+            builder.addAll(this, to, from);
+        }
+        builder.addAll(this, high + 1, size);
+        return builder.build();
+    }
+
+    /**
+     * Fills a new chunk table. Whole chunks of the source that lie before the first change
+     * are shared, everything after is copied.
+     */
+    private static final class Builder {
+        private final TiViewProxy[][] chunks;
+        private final int size;
+        private int count;
+
+        Builder(TiVerticalPagerViewList source, int firstChange, int size) {
+            this.size = size;
+            this.chunks = new TiViewProxy[(size + CHUNK_MASK) >> CHUNK_SHIFT][];
+
+            int shared = Math.min(firstChange, Math.min(source.size, size)) >> CHUNK_SHIFT;
+            System.arraycopy(source.chunks, 0, chunks, 0, shared);
+            count = shared << CHUNK_SHIFT;
+        }
+
+        void add(TiViewProxy page) {
+            int chunk = count >> CHUNK_SHIFT;
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new TiViewProxy[Math.min(CHUNK_SIZE, size - (chunk << CHUNK_SHIFT))];
+            }
+            chunks[chunk][count & CHUNK_MASK] = page;
+            count++;
+        }
+
+        void addAll(List<TiViewProxy> pages, int from, int to) {
+            for (int i = from; i < to; i++) {
+                add(pages.get(i));
+            }
+        }
+
+        TiVerticalPagerViewList build() {
+            return new TiVerticalPagerViewList(chunks, size);
+        }
+    }
+}